@@ -0,0 +1,73 @@
+import benchmarks.Workloads;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Lives in the default package to reach DblpInput, Statistics and the ORCID lookups, see Workloads
+public class JmhWorkloads implements Workloads {
+
+    private static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+
+    public JmhWorkloads() {
+        // Same limit as DblpInput, the generated documents use entities as well
+        System.setProperty("entityExpansionLimit", "2500000");
+    }
+
+    @Override
+    public int captureSaxDom(byte[] xml, boolean dtd, boolean orcidsOnly) throws Exception {
+        return capture(xml, DblpInput.Parser.SAX_DOM, dtd, orcidsOnly);
+    }
+
+    @Override
+    public int captureStax(byte[] xml, boolean dtd, boolean orcidsOnly) throws Exception {
+        return capture(xml, DblpInput.Parser.STAX, dtd, orcidsOnly);
+    }
+
+    private static int capture(byte[] xml, DblpInput.Parser parser, boolean dtd, boolean orcidsOnly) throws Exception {
+        int[] count = new int[1];
+        DblpInput.parse(new ByteArrayInputStream(xml), DblpInput.RECORD_TAGS, parser, dtd, orcidsOnly, record -> count[0]++);
+        return count[0];
+    }
+
+    @Override
+    public Object parseRecords(byte[] xml, Set<String> tags) throws Exception {
+        List<DblpRecord> records = new ArrayList<>();
+        DblpInput.parse(new ByteArrayInputStream(xml), tags, DblpInput.Parser.STAX, true, false, records::add);
+        return records;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object processRecords(Object records) {
+        DblpInput.Shard shard = new DblpInput.Shard(false);
+        for (DblpRecord record : (List<DblpRecord>) records) {
+            shard.process(record);
+        }
+        return shard;
+    }
+
+    @Override
+    public Object loadOrcids(String file) throws Exception {
+        return OrcidLookup.open(file);
+    }
+
+    @Override
+    public void writeIndex(String jsonFile, String indexFile) throws Exception {
+        OrcidIndex.write(OrcidTable.readJson(jsonFile), indexFile);
+    }
+
+    @Override
+    public void join(String orcidFile, String zenodoFile, String statisticsFile, int threads) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(QUIET);
+        try {
+            new Statistics(orcidFile, zenodoFile, statisticsFile, new Statistics.Options().threads(threads));
+        } finally {
+            System.setOut(out);
+        }
+    }
+}
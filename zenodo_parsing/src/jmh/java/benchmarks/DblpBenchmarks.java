@@ -0,0 +1,81 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Records per second for capturing dblp records and for turning them into persons and ORCIDs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DblpBenchmarks {
+
+    static final int RECORDS = 20_000;
+    static final int PERSONS = RECORDS / 10;
+    static final int PUBLICATIONS = RECORDS - PERSONS;
+
+    // Only used by the capture benchmarks, so the processing benchmarks do not run once per value
+    @State(Scope.Benchmark)
+    public static class Capture {
+        // "false" resolves entities from the built-in table instead of the DTD
+        @Param({"true", "false"})
+        public boolean dtd;
+
+        // "true" only captures the authors and editors of publications which have an ORCID
+        @Param({"false", "true"})
+        public boolean orcidsOnly;
+    }
+
+    private Workloads workloads;
+    private byte[] xml;
+    private Object persons;
+    private Object publications;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        workloads = Workloads.load();
+        xml = DblpGenerator.generate(RECORDS, 42);
+        persons = workloads.parseRecords(xml, Set.of("www"));
+        publications = workloads.parseRecords(xml, Set.of("article", "inproceedings"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int captureSaxDom(Capture capture) throws Exception {
+        return workloads.captureSaxDom(xml, capture.dtd, capture.orcidsOnly);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int captureStax(Capture capture) throws Exception {
+        return workloads.captureStax(xml, capture.dtd, capture.orcidsOnly);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PUBLICATIONS)
+    public Object processPublications() {
+        return workloads.processRecords(publications);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PERSONS)
+    public Object extractPersonOrcids() {
+        return workloads.processRecords(persons);
+    }
+}
@@ -0,0 +1,145 @@
+package benchmarks;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+// Reproducible documents with the structure of dblp.xml and dblp_orcids.json
+// Every tenth record is a person ("www"), all other records are publications whose authors refer to these persons
+public final class DblpGenerator {
+
+    private static final String[] FIRST_NAMES = {"Anna", "Jos&eacute;", "Wei", "Maria", "J&ouml;rg", "Priya", "Lars", "Chen", "Fatima", "Tom&aacute;s"};
+    private static final String[] LAST_NAMES = {"M&uuml;ller", "Garc&iacute;a", "Zhang", "Smith", "Nakamura", "Kowalski", "Rossi", "Nguyen", "Schmidt", "O'Brien"};
+    private static final String[] WORDS = {"efficient", "scalable", "graph", "learning", "data", "analysis", "distributed", "query", "model", "towards", "robust", "systems"};
+
+    private static final String DOCTYPE = """
+            <!DOCTYPE dblp [
+            <!ENTITY aacute "&#225;">
+            <!ENTITY eacute "&#233;">
+            <!ENTITY iacute "&#237;">
+            <!ENTITY ouml "&#246;">
+            <!ENTITY uuml "&#252;">
+            <!ELEMENT dblp (article|inproceedings|www)*>
+            <!ELEMENT article (author|title|pages|year|volume|journal|ee|url)*>
+            <!ELEMENT inproceedings (author|title|pages|year|booktitle|ee|url)*>
+            <!ELEMENT www (author|title|url)*>
+            <!ATTLIST article key CDATA #REQUIRED mdate CDATA #IMPLIED>
+            <!ATTLIST inproceedings key CDATA #REQUIRED mdate CDATA #IMPLIED>
+            <!ATTLIST www key CDATA #REQUIRED mdate CDATA #IMPLIED>
+            <!ELEMENT author (#PCDATA)>
+            <!ATTLIST author orcid CDATA #IMPLIED>
+            <!ELEMENT title (#PCDATA)>
+            <!ELEMENT pages (#PCDATA)>
+            <!ELEMENT year (#PCDATA)>
+            <!ELEMENT volume (#PCDATA)>
+            <!ELEMENT journal (#PCDATA)>
+            <!ELEMENT booktitle (#PCDATA)>
+            <!ELEMENT ee (#PCDATA)>
+            <!ELEMENT url (#PCDATA)>
+            ]>
+            """;
+
+    private DblpGenerator() {
+    }
+
+    public static int personCount(int records) {
+        return (records + 9) / 10;
+    }
+
+    // ORCID of a generated person, with a valid ISO 7064 MOD 11-2 check symbol
+    public static String orcid(long person) {
+        String digits = String.format(Locale.ROOT, "%015d", 1_500_000_000_000L + person * 37);
+        int total = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            total = (total + digits.charAt(i) - '0') * 2;
+        }
+        int check = (12 - total % 11) % 11;
+        String id = digits + (check == 10 ? "X" : Integer.toString(check));
+        return id.substring(0, 4) + "-" + id.substring(4, 8) + "-" + id.substring(8, 12) + "-" + id.substring(12);
+    }
+
+    public static String personKey(long person) {
+        return "homepages/" + person % 100 + "/" + person;
+    }
+
+    private static String personName(long person) {
+        return FIRST_NAMES[(int) (person % FIRST_NAMES.length)] + " " + LAST_NAMES[(int) (person / FIRST_NAMES.length % LAST_NAMES.length)] + String.format(Locale.ROOT, " %04d", person);
+    }
+
+    // An ISO-8859-1 encoded dblp document with an internal DTD
+    public static byte[] generate(int records, long seed) {
+        Random random = new Random(seed);
+        int persons = personCount(records);
+
+        StringBuilder xml = new StringBuilder(records * 400);
+        xml.append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n").append(DOCTYPE).append("<dblp>\n");
+        for (int i = 0; i < records; i++) {
+            if (i % 10 == 0) {
+                long person = i / 10;
+                xml.append("<www mdate=\"2023-01-01\" key=\"").append(personKey(person)).append("\">\n");
+                xml.append("<author>").append(personName(person)).append("</author>\n");
+                xml.append("<title>Home Page</title>\n");
+                if (random.nextInt(3) == 0) {
+                    xml.append("<url>https://orcid.org/").append(orcid(person)).append("</url>\n");
+                }
+                xml.append("<url>https://example.org/~").append(person).append("</url>\n");
+                xml.append("</www>\n");
+            } else {
+                boolean article = random.nextBoolean();
+                String tag = article ? "article" : "inproceedings";
+                xml.append('<').append(tag).append(" mdate=\"2022-06-01\" key=\"").append(article ? "journals/j" : "conf/c").append(i % 50).append('/').append(i).append("\">\n");
+                int authors = 1 + random.nextInt(6);
+                for (int a = 0; a < authors; a++) {
+                    long person = random.nextInt(persons);
+                    xml.append("<author");
+                    if (random.nextInt(5) == 0) {
+                        xml.append(" orcid=\"").append(orcid(person)).append('"');
+                    }
+                    xml.append('>').append(personName(person)).append("</author>\n");
+                }
+                xml.append("<title>");
+                int words = 4 + random.nextInt(8);
+                for (int w = 0; w < words; w++) {
+                    xml.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                xml.append(".</title>\n");
+                int page = 1 + random.nextInt(500);
+                xml.append("<pages>").append(page).append('-').append(page + 10 + random.nextInt(20)).append("</pages>\n");
+                xml.append("<year>").append(1990 + random.nextInt(34)).append("</year>\n");
+                if (article) {
+                    xml.append("<volume>").append(1 + random.nextInt(60)).append("</volume>\n");
+                    xml.append("<journal>Journal ").append(i % 50).append("</journal>\n");
+                } else {
+                    xml.append("<booktitle>Conference ").append(i % 50).append("</booktitle>\n");
+                }
+                xml.append("<ee>https://doi.org/10.1000/").append(i).append("</ee>\n");
+                xml.append("<url>db/").append(tag).append('/').append(i % 50).append(".html#").append(i).append("</url>\n");
+                xml.append("</").append(tag).append(">\n");
+            }
+        }
+        xml.append("</dblp>\n");
+        return xml.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    // A dblp_orcids.json file in the format of DblpInput with one ORCID per person, two thirds of them verified
+    public static void writeOrcids(Path file, int persons) throws IOException {
+        try (JsonWriter jsonWriter = new JsonWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            jsonWriter.setIndent("  ");
+            jsonWriter.setHtmlSafe(false);
+            jsonWriter.beginObject();
+            for (long person = 0; person < persons; person++) {
+                jsonWriter.name(orcid(person));
+                jsonWriter.beginObject();
+                jsonWriter.name("key").value(personKey(person));
+                jsonWriter.name("verified").value(person % 3 != 0);
+                jsonWriter.endObject();
+            }
+            jsonWriter.endObject();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// ORCIDs per second for loading dblp_orcids.json, either as JSON or as the binary index
+// Opening the binary index only maps the file, lookups are paid for in StatisticsBenchmarks
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrcidBenchmarks {
+
+    static final int ORCIDS = 200_000;
+
+    @Param({"json", "idx"})
+    public String format;
+
+    private Workloads workloads;
+    private Path directory;
+    private String file;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        workloads = Workloads.load();
+        directory = Files.createTempDirectory("orcid-benchmarks");
+        Path json = directory.resolve("dblp_orcids.json");
+        DblpGenerator.writeOrcids(json, ORCIDS);
+        file = json.toString();
+        if (format.equals("idx")) {
+            file = directory.resolve("dblp_orcids.idx").toString();
+            workloads.writeIndex(json.toString(), file);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORCIDS)
+    public Object load() throws Exception {
+        return workloads.loadOrcids(file);
+    }
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Zenodo records per second for joining a dump with the dblp ORCIDs, including reading the dump and writing the statistics
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StatisticsBenchmarks {
+
+    static final int RECORDS = 20_000;
+    static final int DBLP_PERSONS = 50_000;
+
+    // 0 matches on the calling thread
+    @Param({"0", "4"})
+    public int threads;
+
+    private Workloads workloads;
+    private Path directory;
+    private String orcidFile;
+    private String zenodoFile;
+    private String statisticsFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        workloads = Workloads.load();
+        directory = Files.createTempDirectory("statistics-benchmarks");
+        Path orcids = directory.resolve("dblp_orcids.json");
+        Path zenodo = directory.resolve("zenodo_dump.json");
+        DblpGenerator.writeOrcids(orcids, DBLP_PERSONS);
+        ZenodoGenerator.write(zenodo, RECORDS, DBLP_PERSONS, 42);
+        orcidFile = orcids.toString();
+        zenodoFile = zenodo.toString();
+        statisticsFile = directory.resolve("zenodo_statistics.json").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void join() throws Exception {
+        workloads.join(orcidFile, zenodoFile, statisticsFile, threads);
+    }
+}
@@ -0,0 +1,34 @@
+package benchmarks;
+
+import java.util.Set;
+
+// JMH does not accept benchmarks in the default package and classes in the default package cannot be imported,
+// so the benchmarks call the parsing and join code through this interface, implemented by JmhWorkloads
+public interface Workloads {
+
+    static Workloads load() throws ReflectiveOperationException {
+        return (Workloads) Class.forName("JmhWorkloads").getDeclaredConstructor().newInstance();
+    }
+
+    // Captures all records of a dblp XML document with the SAX to DOM parser and returns the number of records
+    // Without "dtd", entities are resolved by DblpEntityReader, with "orcidsOnly" authors and editors without ORCID are skipped
+    int captureSaxDom(byte[] xml, boolean dtd, boolean orcidsOnly) throws Exception;
+
+    // Captures all records of a dblp XML document with the StAX parser and returns the number of records
+    int captureStax(byte[] xml, boolean dtd, boolean orcidsOnly) throws Exception;
+
+    // Parses the records with the given tags once, so they can be processed repeatedly
+    Object parseRecords(byte[] xml, Set<String> tags) throws Exception;
+
+    // Processes parsed records like DblpInput, returns the resulting persons and ORCIDs
+    Object processRecords(Object records);
+
+    // Loads a dblp_orcids.json file or a binary ORCID index
+    Object loadOrcids(String file) throws Exception;
+
+    // Converts a dblp_orcids.json file into a binary ORCID index
+    void writeIndex(String jsonFile, String indexFile) throws Exception;
+
+    // Runs Statistics quietly
+    void join(String orcidFile, String zenodoFile, String statisticsFile, int threads) throws Exception;
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Random;
+
+// Reproducible Zenodo dumps in the format written by ZenodoRequest
+// A part of the creators and contributors have ORCIDs, half of them belong to persons of DblpGenerator
+public final class ZenodoGenerator {
+
+    private static final String[] WORDS = {"dataset", "replication", "package", "benchmark", "results", "source", "code", "measurements", "corpus", "supplementary", "material", "evaluation"};
+
+    private ZenodoGenerator() {
+    }
+
+    public static void write(Path file, int records, int dblpPersons, long seed) throws IOException {
+        Random random = new Random(seed);
+        long created = Instant.parse("2020-01-01T00:00:00Z").getEpochSecond();
+
+        try (JsonWriter jsonWriter = new JsonWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            jsonWriter.setIndent("  ");
+            jsonWriter.setHtmlSafe(false);
+            jsonWriter.beginArray();
+            for (int i = 0; i < records; i++) {
+                created += random.nextInt(600);
+                int id = 1_000_000 + i;
+
+                jsonWriter.beginObject();
+                jsonWriter.name("created").value(Instant.ofEpochSecond(created, random.nextInt(1_000_000) * 1_000L).toString().replace("Z", "+00:00"));
+                jsonWriter.name("doi").value("10.5281/zenodo." + id);
+                jsonWriter.name("id").value(id);
+                jsonWriter.name("links").beginObject().name("self").value("https://zenodo.org/api/records/" + id).endObject();
+                jsonWriter.name("metadata").beginObject();
+                jsonWriter.name("title").value(text(random, 6));
+                jsonWriter.name("description").value(text(random, 80));
+                writePersons(jsonWriter, "creators", 1 + random.nextInt(5), dblpPersons, random);
+                if (random.nextInt(4) == 0) {
+                    writePersons(jsonWriter, "contributors", 1 + random.nextInt(3), dblpPersons, random);
+                }
+                jsonWriter.name("keywords").beginArray().value(WORDS[random.nextInt(WORDS.length)]).value(WORDS[random.nextInt(WORDS.length)]).endArray();
+                jsonWriter.endObject();
+                jsonWriter.name("stats").beginObject().name("views").value(random.nextInt(1000)).name("downloads").value(random.nextInt(1000)).endObject();
+                jsonWriter.endObject();
+            }
+            jsonWriter.endArray();
+        }
+    }
+
+    private static void writePersons(JsonWriter jsonWriter, String name, int count, int dblpPersons, Random random) throws IOException {
+        jsonWriter.name(name).beginArray();
+        for (int p = 0; p < count; p++) {
+            jsonWriter.beginObject();
+            jsonWriter.name("name").value(WORDS[random.nextInt(WORDS.length)] + ", " + WORDS[random.nextInt(WORDS.length)]);
+            jsonWriter.name("affiliation").value("University " + random.nextInt(200));
+            int orcid = random.nextInt(5);
+            if (orcid < 2) {
+                // Known to dblp, or an ORCID which dblp does not know
+                long person = orcid == 0 ? random.nextInt(dblpPersons) : dblpPersons + random.nextInt(1_000_000);
+                jsonWriter.name("orcid").value(DblpGenerator.orcid(person));
+            }
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            text.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -7,22 +7,40 @@ import org.xml.sax.helpers.DefaultHandler;
 import javax.xml.parsers.*;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 public class CustomSAXParser extends DefaultHandler {
 
+    private static final LongAdder recordCounter = Metrics.counter("dblp.records");
+    private static final LongAdder skippedCounter = Metrics.counter("dblp.skipped");
+
+    // Every captured record is built as a small DOM, its size drives the allocation rate of this parser
+    private static final Metrics.Histogram nodeHistogram = Metrics.histogram("dblp.sax.recordNodes");
+
     private final Stack<Node> path = new Stack<>();
     private final Set<String> queryTags;
     private final DocumentBuilder documentBuilder;
     private final Consumer<Node> nodeConsumer;
+    private final boolean orcidsOnly;
 
     private Document rootNode;
     private boolean isCaptureActive = false;
+    private boolean isFiltered = false;
+    // Depth of the element whose subtree is not captured, 0 if none
+    private int skipDepth = 0;
     private int depth = 0;
+    private int nodeCount = 0;
 
     public CustomSAXParser(Set<String> tags, Consumer<Node> consumer) throws ParserConfigurationException {
+        this(tags, false, consumer);
+    }
+
+    // With "orcidsOnly", records other than "www" are built with only the authors and editors which have an "orcid" attribute
+    public CustomSAXParser(Set<String> tags, boolean orcidsOnly, Consumer<Node> consumer) throws ParserConfigurationException {
         queryTags = tags;
         nodeConsumer = consumer;
+        this.orcidsOnly = orcidsOnly;
         documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
         rootNode = documentBuilder.newDocument();
         path.push(rootNode);
@@ -30,10 +48,11 @@ public class CustomSAXParser extends DefaultHandler {
 
     @Override
     public void characters(char[] ch, int start, int length) {
-        if (isCaptureActive) {
+        if (isCaptureActive && skipDepth == 0) {
             Node last = path.peek();
             String text = new String(ch, start, length);
             last.appendChild(rootNode.createTextNode(text));
+            nodeCount++;
         }
     }
 
@@ -43,9 +62,17 @@ public class CustomSAXParser extends DefaultHandler {
 
         if (depth == 2) {
             isCaptureActive = queryTags.contains(qName);
+            if (!isCaptureActive) {
+                skippedCounter.increment();
+            }
+            isFiltered = orcidsOnly && !qName.equals("www");
         }
 
-        if (depth >= 2 && isCaptureActive) {
+        if (depth == 3 && isCaptureActive && isFiltered && !isContributorWithOrcid(qName, attributes)) {
+            skipDepth = depth;
+        }
+
+        if (depth >= 2 && isCaptureActive && skipDepth == 0) {
             Element element = rootNode.createElement(qName);
 
             int attrLen = attributes.getLength();
@@ -56,15 +83,26 @@ public class CustomSAXParser extends DefaultHandler {
             Node last = path.peek();
             last.appendChild(element);
             path.push(element);
+            nodeCount++;
         }
     }
 
+    private static boolean isContributorWithOrcid(String qName, Attributes attributes) {
+        return (qName.equals("author") || qName.equals("editor")) && attributes.getIndex("orcid") >= 0;
+    }
+
     public void endElement(String uri, String localName, String qName) {
-        if (isCaptureActive) {
+        if (isCaptureActive && skipDepth == 0) {
             path.pop();
         }
+        if (depth == skipDepth) {
+            skipDepth = 0;
+        }
 
         if (depth == 2 && isCaptureActive) {
+            recordCounter.increment();
+            nodeHistogram.record(nodeCount);
+            nodeCount = 0;
             nodeConsumer.accept(rootNode);
             path.clear();
             isCaptureActive = false;
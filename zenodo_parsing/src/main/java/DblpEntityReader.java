@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Decodes dblp.xml (ISO-8859-1) and replaces the named character entities of dblp.dtd, e.g. "&uuml;", by their characters
+// The XML parser then needs neither dblp.dtd nor entity expansion, the resulting text is the same as with the DTD
+// Predefined entities like "&amp;", character references and unknown names are passed on to the parser unchanged
+public class DblpEntityReader extends Reader {
+
+    // dblp.dtd declares the ISO 8859-1 entities of HTML, in the order of their characters from U+00A0 to U+00FF
+    private static final String[] LATIN1 = {
+            "nbsp", "iexcl", "cent", "pound", "curren", "yen", "brvbar", "sect", "uml", "copy", "ordf", "laquo", "not", "shy", "reg", "macr",
+            "deg", "plusmn", "sup2", "sup3", "acute", "micro", "para", "middot", "cedil", "sup1", "ordm", "raquo", "frac14", "frac12", "frac34", "iquest",
+            "Agrave", "Aacute", "Acirc", "Atilde", "Auml", "Aring", "AElig", "Ccedil", "Egrave", "Eacute", "Ecirc", "Euml", "Igrave", "Iacute", "Icirc", "Iuml",
+            "ETH", "Ntilde", "Ograve", "Oacute", "Ocirc", "Otilde", "Ouml", "times", "Oslash", "Ugrave", "Uacute", "Ucirc", "Uuml", "Yacute", "THORN", "szlig",
+            "agrave", "aacute", "acirc", "atilde", "auml", "aring", "aelig", "ccedil", "egrave", "eacute", "ecirc", "euml", "igrave", "iacute", "icirc", "iuml",
+            "eth", "ntilde", "ograve", "oacute", "ocirc", "otilde", "ouml", "divide", "oslash", "ugrave", "uacute", "ucirc", "uuml", "yacute", "thorn", "yuml"
+    };
+
+    // Sorted names for a binary search on the raw bytes, so resolving an entity does not allocate
+    private static final byte[][] NAMES = new byte[LATIN1.length][];
+    private static final char[] CHARACTERS = new char[LATIN1.length];
+
+    static {
+        String[] sorted = LATIN1.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            NAMES[i] = sorted[i].getBytes(StandardCharsets.ISO_8859_1);
+            CHARACTERS[i] = (char) (0xA0 + Arrays.asList(LATIN1).indexOf(sorted[i]));
+        }
+    }
+
+    // "&" + longest name + ";"
+    private static final int MAX_ENTITY = 8;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+
+    public DblpEntityReader(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        int count = 0;
+        while (count < length) {
+            if (position == limit && (count > 0 || !fill())) {
+                // Hand out what is there instead of blocking for more input
+                break;
+            }
+            int b = buffer[position] & 0xFF;
+            if (b == '&') {
+                // An entity must not be split between two buffers
+                if (limit - position < MAX_ENTITY && !eof) {
+                    fill();
+                    continue;
+                }
+                int end = entityEnd();
+                if (end >= 0) {
+                    int character = character(buffer, position + 1, end);
+                    if (character >= 0) {
+                        chars[offset + count++] = (char) character;
+                        position = end + 1;
+                        continue;
+                    }
+                }
+            }
+            chars[offset + count++] = (char) b;
+            position++;
+        }
+        return count == 0 && length > 0 ? -1 : count;
+    }
+
+    // Index of the ";" of the entity starting at "position", or -1
+    private int entityEnd() {
+        int start = position + 1;
+        int end = start;
+        while (end < limit && end - start < MAX_ENTITY - 2 && isNameByte(buffer[end])) {
+            end++;
+        }
+        if (end == start || end == limit || buffer[end] != ';') {
+            return -1;
+        }
+        return end;
+    }
+
+    // The character of the entity whose name is stored in bytes[start, end), or -1 if dblp.dtd does not declare it
+    static int character(byte[] bytes, int start, int end) {
+        int low = 0;
+        int high = NAMES.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = Arrays.compare(NAMES[middle], 0, NAMES[middle].length, bytes, start, end);
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return CHARACTERS[middle];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNameByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9');
+    }
+
+    // Keeps the unread bytes and appends more, returns false if nothing could be read
+    private boolean fill() throws IOException {
+        if (eof) {
+            return position < limit;
+        }
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+            return limit > 0;
+        }
+        limit += read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -4,54 +4,114 @@ import me.tongfei.progressbar.ProgressBar;
 import me.tongfei.progressbar.ProgressBarBuilder;
 import me.tongfei.progressbar.ProgressBarStyle;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.IntStream;
-import java.util.zip.GZIPInputStream;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 
 public class DblpInput {
 
-    record Person(List<String> names, Set<String> verifiedOrcids, Set<String> orcidsFromPublications) {
-    }
+    // ORCIDs are packed by OrcidCodec and kept in small duplicate-free arrays
+    static final class Person {
+        private final long[] verifiedOrcids;
+        private long[] orcidsFromPublications = NO_ORCIDS;
 
-    record OrcidInfo(String key, boolean verified) {
+        Person(long[] verifiedOrcids) {
+            this.verifiedOrcids = verifiedOrcids;
+        }
     }
 
-    private static final Pattern orcidPattern = Pattern.compile("https://orcid.org/([0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{3}[0-9X])");
+    private static final long[] NO_ORCIDS = new long[0];
+
+    // Records are extracted by a StAX pull parser, the DOM-based SAX handler is kept as a fallback
+    // MAPPED scans an uncompressed dblp.xml with MappedDblpScanner, on all cores unless "threads" is set
+    enum Parser {
+        STAX, SAX_DOM, MAPPED
+    }
 
     private static final int MAX_CONSOLE_WIDTH = 80;
 
-    private final Map<String, Person> personMap = new HashMap<>();
-    private final Map<String, Set<String>> personOrcidsMap = new HashMap<>();
-    private final Map<String, String> nameToKeyMap = new HashMap<>();
-    private final Map<String, OrcidInfo> orcidMap = new HashMap<>();
+    // Number of records handed to a worker thread at once in pipeline mode
+    private static final int BATCH_SIZE = 4096;
+
+    // Only look at "publication" and "person" records
+    static final Set<String> RECORD_TAGS = Set.of("book", "article", "phdthesis", "inproceedings", "www", "incollection", "proceedings", "mastersthesis");
+
+    static class Options {
+        private Parser parser = Parser.STAX;
+        private boolean dtd = true;
+        private boolean orcidsOnly = false;
+        private int threads = 0;
+        private int inflateThreads = Runtime.getRuntime().availableProcessors();
+        private String indexFile = null;
+        private String previousFile = null;
+        private String deltaFile = null;
+
+        Options parser(Parser parser) {
+            this.parser = parser;
+            return this;
+        }
+
+        // Without dblp.dtd, character entities are resolved from a built-in table by DblpEntityReader
+        // and the SAX_DOM parser no longer validates, the extracted text is the same
+        Options dtd(boolean dtd) {
+            this.dtd = dtd;
+            return this;
+        }
+
+        // Captures publications with only those authors and editors that have an ORCID, the text and children
+        // of all other elements are skipped, person records are captured completely, the output stays the same
+        Options orcidsOnly(boolean orcidsOnly) {
+            this.orcidsOnly = orcidsOnly;
+            return this;
+        }
 
-    private int personCounter = 0;
-    private int publicationCounter = 0;
+        // 0 processes records on the parsing thread, otherwise records are processed by a pool of worker threads
+        Options threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
 
-    public DblpInput(String dblpFile, String jsonFile) throws ParserConfigurationException, SAXException, IOException {
+        // Only used for BGZF input, other gzip files are inflated by a single read-ahead thread
+        Options inflateThreads(int inflateThreads) {
+            this.inflateThreads = inflateThreads;
+            return this;
+        }
 
-        System.setProperty("entityExpansionLimit", "2500000");
+        // Additionally write a binary OrcidIndex, which Statistics can memory-map instead of parsing JSON
+        Options indexFile(String indexFile) {
+            this.indexFile = indexFile;
+            return this;
+        }
+
+        // Compare the result with the output of a previous dblp release (JSON or binary index) and write an OrcidDelta
+        Options delta(String previousFile, String deltaFile) {
+            this.previousFile = previousFile;
+            this.deltaFile = deltaFile;
+            return this;
+        }
+    }
+
+    private final Shard persons = new Shard(false);
+    private final OrcidTable orcidMap = new OrcidTable(1 << 20);
 
-        SAXParserFactory factory = SAXParserFactory.newInstance();
-        factory.setValidating(true);
-        SAXParser parser = factory.newSAXParser();
+    public DblpInput(String dblpFile, String jsonFile) throws ParserConfigurationException, SAXException, IOException, XMLStreamException, InterruptedException {
+        this(dblpFile, jsonFile, new Options());
+    }
 
-        // Only look at "publication" and "person" records
-        Set<String> tags = Set.of("book", "article", "phdthesis", "inproceedings", "www", "incollection", "proceedings", "mastersthesis");
+    public DblpInput(String dblpFile, String jsonFile, Options options) throws ParserConfigurationException, SAXException, IOException, XMLStreamException, InterruptedException {
 
-        CustomSAXParser saxParser = new CustomSAXParser(tags, this::process);
+        // dblp.xml references far more entities than the JDK allows by default, only needed if they are expanded by the parser
+        System.setProperty("entityExpansionLimit", "2500000");
 
         ProgressBarBuilder pbb = new ProgressBarBuilder()
                 .setConsumer(new ConsoleProgressBarConsumer(System.out, MAX_CONSOLE_WIDTH))
@@ -59,45 +119,203 @@ public class DblpInput {
                 .setUnit("MB", 1_048_576)
                 .setStyle(ProgressBarStyle.ASCII);
 
-        // If XML input file is still compressed, transparently uncompress it
-        InputStream is = dblpFile.endsWith(".xml.gz")
-                ? new GZIPInputStream(ProgressBar.wrap(new FileInputStream(dblpFile), pbb))
-                : ProgressBar.wrap(new FileInputStream(dblpFile), pbb);
-
         // Parser XML
-        parser.parse(is, saxParser);
+        long start = System.nanoTime();
+        if (options.parser == Parser.MAPPED) {
+            if (dblpFile.endsWith(".gz")) {
+                throw new IllegalArgumentException("The MAPPED parser needs an uncompressed dblp.xml");
+            }
+            parseMapped(dblpFile, RECORD_TAGS, options, pbb);
+        } else {
+            // If XML input file is still compressed, transparently uncompress it
+            InputStream is = dblpFile.endsWith(".xml.gz")
+                    ? new ParallelGzipInputStream(ProgressBar.wrap(new FileInputStream(dblpFile), pbb), options.inflateThreads)
+                    : ProgressBar.wrap(new FileInputStream(dblpFile), pbb);
+            if (options.threads > 0) {
+                parsePipelined(is, RECORD_TAGS, options);
+            } else {
+                // The StAX parser does not close the stream, the file and the inflater threads are released here
+                try (is) {
+                    parse(is, RECORD_TAGS, options.parser, options.dtd, options.orcidsOnly, persons::process);
+                }
+            }
+        }
+        Metrics.timer("dblp.parse").recordSince(start);
 
         // Create a list of verified and unverified ORCIDs
+        start = System.nanoTime();
         collectOrcids();
+        Metrics.timer("dblp.collect").recordSince(start);
 
         // Store results in output file
+        start = System.nanoTime();
         outputJson(jsonFile);
+        if (options.indexFile != null) {
+            OrcidIndex.write(orcidMap, options.indexFile);
+        }
+        if (options.deltaFile != null) {
+            OrcidDelta.write(OrcidLookup.open(options.previousFile), orcidMap, options.deltaFile);
+        }
+        Metrics.timer("dblp.output").recordSince(start);
+
+        Metrics.gauge("dblp.persons", persons.personCounter);
+        Metrics.gauge("dblp.publications", persons.publicationCounter);
+        Metrics.gauge("dblp.orcids", orcidMap.size());
+        Metrics.gauge("dblp.orcids.verified", orcidMap.verifiedCount());
+
+        System.out.println("Total number of persons in dblp      : " + persons.personCounter);
+        System.out.println("Total number of publications in dblp : " + persons.publicationCounter);
+    }
+
+    static void parse(InputStream is, Set<String> tags, Parser parserType, boolean dtd, boolean orcidsOnly, Consumer<DblpRecord> consumer) throws ParserConfigurationException, SAXException, IOException, XMLStreamException {
+        if (parserType == Parser.MAPPED) {
+            throw new IllegalArgumentException("The MAPPED parser maps the file itself and cannot read a stream");
+        }
+        if (parserType == Parser.SAX_DOM) {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setValidating(dtd);
+            if (!dtd) {
+                factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            }
+            SAXParser parser = factory.newSAXParser();
+            CustomSAXParser handler = new CustomSAXParser(tags, orcidsOnly, node -> consumer.accept(DblpRecord.of((Element) node.getFirstChild())));
+            if (dtd) {
+                parser.parse(is, handler);
+            } else {
+                parser.parse(new InputSource(new DblpEntityReader(is)), handler);
+            }
+        } else if (dtd) {
+            new StaxRecordParser(tags, consumer, true, orcidsOnly).parse(is);
+        } else {
+            new StaxRecordParser(tags, consumer, false, orcidsOnly).parse(new DblpEntityReader(is));
+        }
+    }
+
+    // Each range of the file is scanned and processed by one task, the shards are merged in the order of the ranges
+    private void parseMapped(String dblpFile, Set<String> tags, Options options, ProgressBarBuilder pbb) throws IOException, InterruptedException {
+        int threads = options.threads > 0 ? options.threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+
+        try (MappedDblpScanner scanner = new MappedDblpScanner(dblpFile, tags, options.orcidsOnly);
+             ProgressBar pb = pbb.setInitialMax(scanner.size()).build()) {
+            // More ranges than threads, so a range with many large records does not keep the other threads waiting
+            List<MappedDblpScanner.Range> ranges = scanner.split(threads * 8);
+            List<Future<Shard>> futures = new ArrayList<>(ranges.size());
+            for (MappedDblpScanner.Range range : ranges) {
+                futures.add(workers.submit(() -> {
+                    Shard shard = new Shard(true);
+                    scanner.scan(range, shard::process);
+                    return shard;
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                persons.merge(futures.get(i).get());
+                pb.stepBy(ranges.get(i).length());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ex) {
+                throw ex;
+            }
+            throw new IllegalStateException("Processing dblp records failed", cause);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void parsePipelined(InputStream is, Set<String> tags, Options options) throws SAXException, IOException, XMLStreamException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads);
+
+        ResultQueue<Shard> queue = new ResultQueue<>(options.threads * 4);
+
+        FutureTask<Void> producer = new FutureTask<>(() -> {
+            try (is) {
+                List<DblpRecord> batch = new ArrayList<>(BATCH_SIZE);
+                parse(is, tags, options.parser, options.dtd, options.orcidsOnly, record -> {
+                    batch.add(record);
+                    if (batch.size() == BATCH_SIZE) {
+                        submitBatch(workers, queue, List.copyOf(batch));
+                        batch.clear();
+                    }
+                });
+                submitBatch(workers, queue, batch);
+            } finally {
+                queue.end();
+            }
+            return null;
+        });
+        Thread parserThread = new Thread(producer, "dblp-parser");
+        parserThread.setDaemon(true);
+        parserThread.start();
+
+        try {
+            // Shards are merged in document order, so the result is identical to single-threaded processing
+            Future<Shard> future;
+            while ((future = queue.take()) != null) {
+                persons.merge(future.get());
+            }
+            producer.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ex) {
+                throw ex;
+            } else if (cause instanceof SAXException ex) {
+                throw ex;
+            } else if (cause instanceof XMLStreamException ex) {
+                throw ex;
+            }
+            throw new IllegalStateException("Processing dblp records failed", cause);
+        } finally {
+            // Stops the parser if a batch failed, it would otherwise wait for the queue forever
+            queue.close();
+            producer.cancel(true);
+            workers.shutdownNow();
+        }
+    }
 
-        System.out.println("Total number of persons in dblp      : " + personCounter);
-        System.out.println("Total number of publications in dblp : " + publicationCounter);
+    private static void submitBatch(ExecutorService workers, ResultQueue<Shard> queue, List<DblpRecord> batch) {
+        queue.put(workers.submit(() -> {
+            Shard shard = new Shard(true);
+            batch.forEach(shard::process);
+            return shard;
+        }));
     }
 
     private void collectOrcids() {
         // The order of publications and persons in dblp is random
         // Assigning ORCIDs to person keys needs to be delayed until whole XML file is parsed
-        personOrcidsMap.forEach((name, orcid) -> {
-            if (nameToKeyMap.containsKey(name)) {
-                String personKey = nameToKeyMap.get(name);
-                if (personMap.containsKey(personKey)) {
-                    personMap.get(personKey).orcidsFromPublications().addAll(orcid);
-                    return;
-                }
+        Map<String, Person> personMap = persons.personMap;
+
+        // Largest maps of the pipeline, they determine the heap size needed for a dblp release
+        Metrics.gauge("dblp.map.persons", personMap.size());
+        Metrics.gauge("dblp.map.names", persons.names.size());
+        Metrics.gauge("dblp.map.personOrcids", persons.nameOrcidsCount);
+        Metrics.gauge("dblp.map.nameToKey", persons.nameKeysCount);
+        LongAdder unresolvedCounter = Metrics.counter("dblp.orcids.unresolved");
+
+        // Names are visited in the order they first occurred in dblp.xml
+        for (int id = 0; id < persons.names.size(); id++) {
+            long[] orcids = persons.nameOrcids[id];
+            if (orcids == null) {
+                continue;
             }
-            System.err.printf("No dblpKey found for '%s' with ORCID '%s'\n", name, orcid);
-        });
+            String personKey = persons.nameKeys[id];
+            Person person = personKey == null ? null : personMap.get(personKey);
+            if (person == null) {
+                System.err.printf("No dblpKey found for '%s' with ORCID '%s'\n", persons.names.name(id), Arrays.stream(orcids).mapToObj(OrcidCodec::decode).toList());
+                unresolvedCounter.increment();
+                continue;
+            }
+            for (long orcid : orcids) {
+                person.orcidsFromPublications = addOrcid(person.orcidsFromPublications, orcid);
+            }
+        }
 
         // Verified ORCIDs exist in person profiles and should only appear once
         personMap.forEach((key, person) -> {
-            for (String orcid : person.verifiedOrcids) {
-                OrcidInfo orcidInfo = new OrcidInfo(key, true);
-                if (!orcidMap.containsKey(orcid)) {
-                    orcidMap.put(orcid, orcidInfo);
-                } else {
+            for (long orcid : person.verifiedOrcids) {
+                if (!orcidMap.putIfAbsent(orcid, key, true)) {
                     System.err.println("Verified ORCID duplicate!");
                 }
             }
@@ -106,37 +324,51 @@ public class DblpInput {
         // Unverified ORCIDs exist in publication metadata
         // If the ORCID is already known to be verified, skip entry
         personMap.forEach((key, person) -> {
-            for (String orcid : person.orcidsFromPublications()) {
-                OrcidInfo orcidInfo = new OrcidInfo(key, false);
-                if (!orcidMap.containsKey(orcid)) {
-                    orcidMap.put(orcid, orcidInfo);
-                }
+            for (long orcid : person.orcidsFromPublications) {
+                orcidMap.putIfAbsent(orcid, key, false);
             }
         });
 
         // Free unused memory
         personMap.clear();
-        personOrcidsMap.clear();
-        nameToKeyMap.clear();
+        persons.clearNames();
     }
 
     private void outputJson(String jsonFile) throws IOException {
 
-        try (JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(jsonFile), StandardCharsets.UTF_8)))) {
+        if (JsonFiles.isNdjson(jsonFile)) {
+            // One {"orcid": ..., "key": ..., "verified": ...} record per line
+            try (JsonRecordWriter recordWriter = new JsonRecordWriter(jsonFile)) {
+                for (int i = 0; i < orcidMap.size(); i++) {
+                    int entry = orcidMap.entryAt(i);
+                    recordWriter.beginRecord()
+                            .beginObject()
+                            .name("orcid").value(OrcidCodec.decode(orcidMap.orcidAt(i)))
+                            .name("key").value(orcidMap.key(entry))
+                            .name("verified").value(OrcidLookup.isVerified(entry))
+                            .endObject();
+                    recordWriter.endRecord();
+                }
+            }
+            return;
+        }
+
+        try (JsonWriter jsonWriter = new JsonWriter(JsonFiles.newWriter(jsonFile))) {
             jsonWriter.setIndent("  ");
             jsonWriter.setHtmlSafe(false);
 
             jsonWriter.beginObject();
 
-            for (Map.Entry<String, OrcidInfo> entry : orcidMap.entrySet()) {
-                jsonWriter.name(entry.getKey());
+            for (int i = 0; i < orcidMap.size(); i++) {
+                int entry = orcidMap.entryAt(i);
+                jsonWriter.name(OrcidCodec.decode(orcidMap.orcidAt(i)));
                 jsonWriter.beginObject();
 
                 jsonWriter.name("key");
-                jsonWriter.value(entry.getValue().key());
+                jsonWriter.value(orcidMap.key(entry));
 
                 jsonWriter.name("verified");
-                jsonWriter.value(entry.getValue().verified());
+                jsonWriter.value(OrcidLookup.isVerified(entry));
 
                 jsonWriter.endObject();
             }
@@ -145,67 +377,139 @@ public class DblpInput {
         }
     }
 
-    private void extractOrcids(NodeList nl) {
-        // Unverified ORCIDs are stored as XML attributes for authors/editors
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element e = (Element) nl.item(i);
-            String name = e.getTextContent();
-            if (e.hasAttribute("orcid")) {
-                // ORCIDs as attributes are stored without "https://orcid.org/..." prefix
-                personOrcidsMap.computeIfAbsent(name, x -> new HashSet<>(2)).add(e.getAttribute("orcid"));
+    // Returns the array itself if the ORCID is already contained, otherwise a copy with the ORCID appended
+    private static long[] addOrcid(long[] orcids, long orcid) {
+        for (long o : orcids) {
+            if (o == orcid) {
+                return orcids;
             }
         }
+        long[] result = Arrays.copyOf(orcids, orcids.length + 1);
+        result[orcids.length] = orcid;
+        return result;
     }
 
-    private void process(Node node) {
-        Element e = (Element) node.getFirstChild();
-
-        String dblpKey = e.getAttribute("key");
-
-        if (e.getNodeName().equals("www")) {
-            if (!dblpKey.startsWith("homepages/")) {
-                return;
-            }
-
-            // Person record
-            NodeList authorNodeList = e.getElementsByTagName("author");
-            NodeList urlNodeList = e.getElementsByTagName("url");
-
-            // Persons may have multiple names
-            List<String> authorList = IntStream
-                    .range(0, authorNodeList.getLength())
-                    .mapToObj(authorNodeList::item)
-                    .map(Node::getTextContent)
-                    .toList();
-
-            // Persons may have multiple URLs
-            List<String> urlList = IntStream
-                    .range(0, urlNodeList.getLength())
-                    .mapToObj(urlNodeList::item)
-                    .map(Node::getTextContent)
-                    .toList();
-
-            if (authorList.size() != 0) {
-                // Person profiles with 0 authors are only used for redirection to other profiles
-                personCounter++;
-                authorList.forEach(name -> nameToKeyMap.putIfAbsent(name, dblpKey));
-                Set<String> verifiedOrcids = new HashSet<>(2);
-                for (String url : urlList) {
-                    // ORCIDs in person profiles are stored as URLs to "https://orcid.org/..."
-                    Matcher m = orcidPattern.matcher(url);
-                    if (m.matches()) {
-                        verifiedOrcids.add(m.group(1));
+    // Holds all persons and publication ORCIDs of a sequence of records
+    // In pipeline mode, every batch gets its own insertion-ordered shard which is merged into the main shard
+    static class Shard {
+        private final Map<String, Person> personMap;
+
+        // Author names occur once per publication, they are looked up once in "names" and then stored by their id
+        private NameDictionary names;
+        // ORCIDs from publications and the person key of each name id, null if there is none
+        private long[][] nameOrcids;
+        private String[] nameKeys;
+        private int nameOrcidsCount = 0;
+        private int nameKeysCount = 0;
+
+        private int personCounter = 0;
+        private int publicationCounter = 0;
+
+        Shard(boolean ordered) {
+            personMap = ordered ? new LinkedHashMap<>() : new HashMap<>();
+            // Grown on demand, most shards only hold a batch of records
+            names = new NameDictionary(1 << 10);
+            nameOrcids = new long[1 << 10][];
+            nameKeys = new String[1 << 10];
+        }
+
+        // Replays the shard's insertions in their original order
+        void merge(Shard other) {
+            personMap.putAll(other.personMap);
+            for (int otherId = 0; otherId < other.names.size(); otherId++) {
+                int id = nameId(other.names.name(otherId));
+                long[] orcids = other.nameOrcids[otherId];
+                if (orcids != null) {
+                    for (long orcid : orcids) {
+                        addPublicationOrcid(id, orcid);
                     }
                 }
-                // Create new Person with list of "verified" ORCIDs and an empty list of "unverified" ORCIDs
-                personMap.put(dblpKey, new Person(authorList, verifiedOrcids, new HashSet<>(2)));
+                if (other.nameKeys[otherId] != null) {
+                    putKeyIfAbsent(id, other.nameKeys[otherId]);
+                }
             }
+            personCounter += other.personCounter;
+            publicationCounter += other.publicationCounter;
+        }
 
-        } else {
-            // Publication record, only extract ORCIDs and ignore everything else
-            publicationCounter++;
-            extractOrcids(e.getElementsByTagName("author"));
-            extractOrcids(e.getElementsByTagName("editor"));
+        private int nameId(String name) {
+            int id = names.id(name);
+            if (id == nameKeys.length) {
+                nameOrcids = Arrays.copyOf(nameOrcids, id * 2);
+                nameKeys = Arrays.copyOf(nameKeys, id * 2);
+            }
+            return id;
+        }
+
+        private void putKeyIfAbsent(int id, String key) {
+            if (nameKeys[id] == null) {
+                nameKeys[id] = key;
+                nameKeysCount++;
+            }
+        }
+
+        // Only needed until the ORCIDs are collected
+        private void clearNames() {
+            names = new NameDictionary(0);
+            nameOrcids = new long[0][];
+            nameKeys = new String[0];
+        }
+
+        private void extractOrcids(List<DblpRecord.Contributor> contributors) {
+            // Unverified ORCIDs are stored as XML attributes for authors/editors
+            for (DblpRecord.Contributor c : contributors) {
+                if (c.orcid() != null) {
+                    // ORCIDs as attributes are stored without "https://orcid.org/..." prefix
+                    long orcid = OrcidCodec.parse(c.orcid());
+                    if (orcid != OrcidCodec.INVALID) {
+                        addPublicationOrcid(nameId(c.name()), orcid);
+                    }
+                }
+            }
+        }
+
+        private void addPublicationOrcid(int id, long orcid) {
+            long[] orcids = nameOrcids[id];
+            if (orcids == null) {
+                nameOrcidsCount++;
+            }
+            nameOrcids[id] = addOrcid(orcids == null ? NO_ORCIDS : orcids, orcid);
+        }
+
+        void process(DblpRecord record) {
+            String dblpKey = record.key();
+
+            if (record.tag().equals("www")) {
+                if (!dblpKey.startsWith("homepages/")) {
+                    return;
+                }
+
+                // Person record, persons may have multiple names and multiple URLs
+                List<DblpRecord.Contributor> authorList = record.authors();
+                List<String> urlList = record.urls();
+
+                if (authorList.size() != 0) {
+                    // Person profiles with 0 authors are only used for redirection to other profiles
+                    personCounter++;
+                    authorList.forEach(author -> putKeyIfAbsent(nameId(author.name()), dblpKey));
+                    long[] verifiedOrcids = NO_ORCIDS;
+                    for (String url : urlList) {
+                        // ORCIDs in person profiles are stored as URLs to "https://orcid.org/..."
+                        long orcid = OrcidCodec.parse(url);
+                        if (orcid != OrcidCodec.INVALID) {
+                            verifiedOrcids = addOrcid(verifiedOrcids, orcid);
+                        }
+                    }
+                    // Create new Person with list of "verified" ORCIDs and an empty list of "unverified" ORCIDs
+                    personMap.put(dblpKey, new Person(verifiedOrcids));
+                }
+
+            } else {
+                // Publication record, only extract ORCIDs and ignore everything else
+                publicationCounter++;
+                extractOrcids(record.authors());
+                extractOrcids(record.editors());
+            }
         }
     }
 }
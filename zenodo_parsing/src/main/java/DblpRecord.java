@@ -0,0 +1,39 @@
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record DblpRecord(String tag, String key, List<Contributor> authors, List<Contributor> editors, List<String> urls) {
+
+    // "orcid" is null if the XML element has no such attribute
+    record Contributor(String name, String orcid) {
+    }
+
+    // Converts a record captured by CustomSAXParser, only used by the DOM fallback
+    static DblpRecord of(Element e) {
+        return new DblpRecord(
+                e.getNodeName(),
+                e.getAttribute("key"),
+                contributors(e.getElementsByTagName("author")),
+                contributors(e.getElementsByTagName("editor")),
+                texts(e.getElementsByTagName("url")));
+    }
+
+    private static List<Contributor> contributors(NodeList nl) {
+        List<Contributor> list = new ArrayList<>(nl.getLength());
+        for (int i = 0; i < nl.getLength(); i++) {
+            Element e = (Element) nl.item(i);
+            list.add(new Contributor(e.getTextContent(), e.hasAttribute("orcid") ? e.getAttribute("orcid") : null));
+        }
+        return list;
+    }
+
+    private static List<String> texts(NodeList nl) {
+        List<String> list = new ArrayList<>(nl.getLength());
+        for (int i = 0; i < nl.getLength(); i++) {
+            list.add(nl.item(i).getTextContent());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,128 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Append-only log of a Zenodo harvest: the planned timeframes and every timeframe which was fetched completely
+// Records of finished timeframes are already in the spill file of ZenodoDumpWriter, so an interrupted harvest can continue from here
+//
+//   window <TAB> start <TAB> end <TAB> total   (one line per planned timeframe)
+//   planned                                   (the plan is complete)
+//   done <TAB> start <TAB> end                (timeframe was fetched and its records were flushed)
+public class HarvestCheckpoint implements Closeable {
+
+    private final Path file;
+    private final List<WindowPlanner.Window> plannedWindows = new ArrayList<>();
+    private final Set<String> doneWindows = new HashSet<>();
+    private final BufferedWriter writer;
+
+    private boolean planned = false;
+
+    public HarvestCheckpoint(String checkpointFile) throws IOException {
+        file = Path.of(checkpointFile);
+
+        if (Files.exists(file)) {
+            byte[] content = Files.readAllBytes(file);
+            // Length of the complete lines, the rest is the incomplete last line of an interrupted run
+            int length = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] == '\n') {
+                    String line = new String(content, length, i - length, StandardCharsets.UTF_8).strip();
+                    if (!readLine(line)) {
+                        break;
+                    }
+                    length = i + 1;
+                }
+            }
+            if (!planned) {
+                plannedWindows.clear();
+                doneWindows.clear();
+            } else if (length < content.length) {
+                // Otherwise the next line would be appended to the fragment and could not be read
+                try (RandomAccessFile truncated = new RandomAccessFile(file.toFile(), "rw")) {
+                    truncated.setLength(length);
+                }
+            }
+        }
+
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, planned ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // Returns false for a malformed line, which can only be the last line of an interrupted run
+    private boolean readLine(String line) {
+        String[] fields = line.split("\t");
+        try {
+            switch (fields[0]) {
+                case "window" -> {
+                    if (fields.length != 4) {
+                        return false;
+                    }
+                    plannedWindows.add(new WindowPlanner.Window(Instant.parse(fields[1]), Instant.parse(fields[2]), Long.parseLong(fields[3])));
+                }
+                case "planned" -> planned = true;
+                case "done" -> {
+                    if (fields.length != 3) {
+                        return false;
+                    }
+                    doneWindows.add(fields[1] + "\t" + fields[2]);
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Returns the plan of an interrupted harvest or null if there is none
+    public List<WindowPlanner.Window> plannedWindows() {
+        return planned ? plannedWindows : null;
+    }
+
+    public int doneCount() {
+        return doneWindows.size();
+    }
+
+    public synchronized void recordPlan(List<WindowPlanner.Window> windows) throws IOException {
+        for (WindowPlanner.Window window : windows) {
+            writer.write("window\t" + window.start() + "\t" + window.end() + "\t" + window.total());
+            writer.newLine();
+        }
+        writer.write("planned");
+        writer.newLine();
+        writer.flush();
+        plannedWindows.addAll(windows);
+        planned = true;
+    }
+
+    public synchronized boolean isDone(WindowPlanner.Window window) {
+        return doneWindows.contains(window.start() + "\t" + window.end());
+    }
+
+    public synchronized void markDone(WindowPlanner.Window window) throws IOException {
+        writer.write("done\t" + window.start() + "\t" + window.end());
+        writer.newLine();
+        writer.flush();
+        doneWindows.add(window.start() + "\t" + window.end());
+    }
+
+    // The harvest finished, nothing needs to be resumed
+    public synchronized void delete() throws IOException {
+        writer.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Splits a JSON array of objects or arrays, or newline-delimited JSON, into smaller JSON arrays without parsing the elements
+// Only brackets, strings and escapes are tracked, all bytes of UTF-8 multibyte characters are >= 0x80 and copied unchanged
+public class JsonArrayChunker {
+
+    private final InputStream in;
+    private final boolean ndjson;
+    private boolean started;
+    private boolean finished = false;
+
+    public JsonArrayChunker(InputStream in, boolean ndjson) {
+        this.in = in;
+        this.ndjson = ndjson;
+        // Newline-delimited JSON has no enclosing array
+        started = ndjson;
+    }
+
+    // Returns a JSON array with the next "maxElements" elements, or null after the last element
+    public byte[] next(int maxElements) throws IOException {
+        if (!started) {
+            if (skipWhitespace() != '[') {
+                throw new IOException("Expected a JSON array");
+            }
+            started = true;
+        }
+        if (finished) {
+            return null;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        int count = 0;
+        while (ndjson && count < maxElements) {
+            int c = in.read();
+            while (c == '\n' || c == '\r' || c == ' ' || c == '\t') {
+                c = in.read();
+            }
+            if (c == -1) {
+                finished = true;
+                break;
+            }
+            if (count > 0) {
+                out.write(',');
+            }
+            // Every line holds exactly one record
+            while (c != '\n' && c != -1) {
+                out.write(c);
+                c = in.read();
+            }
+            count++;
+        }
+        while (!ndjson && count < maxElements) {
+            int c = skipWhitespace();
+            if (c == ',') {
+                // Separator after the previous element
+                c = skipWhitespace();
+            }
+            if (c == ']') {
+                finished = true;
+                break;
+            }
+            if (c != '{' && c != '[') {
+                throw new IOException("Expected a JSON object or array, found '" + (char) c + "'");
+            }
+            if (count > 0) {
+                out.write(',');
+            }
+            copyElement(c, out);
+            count++;
+        }
+        if (count == 0) {
+            return null;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private void copyElement(int first, ByteArrayOutputStream out) throws IOException {
+        out.write(first);
+        int depth = 1;
+        boolean inString = false;
+        boolean escaped = false;
+        while (depth > 0) {
+            int c = read();
+            out.write(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            int c = read();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            throw new EOFException("Unexpected end of JSON array");
+        }
+        return c;
+    }
+}
@@ -0,0 +1,41 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// The format of intermediate files is chosen by their name:
+// "*.ndjson" contains one compact JSON record per line, every other file a pretty-printed JSON document
+// A trailing ".gz" compresses either format, e.g. "zenodo_dump.ndjson.gz" or "statistics.json.gz"
+public final class JsonFiles {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private JsonFiles() {
+    }
+
+    public static boolean isNdjson(String file) {
+        String name = isGzip(file) ? file.substring(0, file.length() - ".gz".length()) : file;
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    public static boolean isGzip(String file) {
+        return file.endsWith(".gz");
+    }
+
+    public static InputStream newInputStream(String file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        return isGzip(file) ? new GZIPInputStream(in, BUFFER_SIZE) : new BufferedInputStream(in, BUFFER_SIZE);
+    }
+
+    public static BufferedReader newReader(String file) throws IOException {
+        return new BufferedReader(new InputStreamReader(newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static Writer newWriter(String file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        if (isGzip(file)) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
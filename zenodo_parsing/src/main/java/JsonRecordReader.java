@@ -0,0 +1,49 @@
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+// Reads a sequence of records from a JSON array or from newline-delimited JSON, depending on the file name
+public class JsonRecordReader implements Closeable {
+
+    private final JsonReader jsonReader;
+    private final boolean empty;
+
+    public JsonRecordReader(String file) throws IOException {
+        BufferedReader reader = JsonFiles.newReader(file);
+        jsonReader = new JsonReader(reader);
+        if (JsonFiles.isNdjson(file)) {
+            // Every line is a top-level value, JsonReader fails on a document without any value
+            jsonReader.setLenient(true);
+            empty = isBlank(reader);
+        } else {
+            jsonReader.beginArray();
+            empty = false;
+        }
+    }
+
+    private static boolean isBlank(BufferedReader reader) throws IOException {
+        reader.mark(1 << 16);
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        reader.reset();
+        return c == -1;
+    }
+
+    public boolean hasNext() throws IOException {
+        return !empty && jsonReader.hasNext();
+    }
+
+    // Returns the reader positioned at the next record, which has to be consumed completely
+    public JsonReader next() {
+        return jsonReader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        jsonReader.close();
+    }
+}
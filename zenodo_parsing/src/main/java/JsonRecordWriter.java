@@ -0,0 +1,61 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+// Writes a sequence of records as a pretty-printed JSON array or as newline-delimited JSON, depending on the file name
+public class JsonRecordWriter implements Closeable {
+
+    private static final Gson GSON = new Gson();
+
+    private final Writer out;
+    private final JsonWriter jsonWriter;
+    private final boolean ndjson;
+
+    public JsonRecordWriter(String file) throws IOException {
+        ndjson = JsonFiles.isNdjson(file);
+        out = JsonFiles.newWriter(file);
+        jsonWriter = new JsonWriter(out);
+        jsonWriter.setHtmlSafe(false);
+        if (ndjson) {
+            // Every line is a top-level value
+            jsonWriter.setLenient(true);
+        } else {
+            jsonWriter.setIndent("  ");
+            jsonWriter.beginArray();
+        }
+    }
+
+    // Returns the writer for the next record, endRecord() has to be called after the record was written
+    public JsonWriter beginRecord() {
+        return jsonWriter;
+    }
+
+    public void endRecord() throws IOException {
+        if (ndjson) {
+            // JsonWriter does not buffer, so the line break follows the record
+            out.write('\n');
+        }
+    }
+
+    // Writes a record which is already serialized as compact JSON
+    public void writeRecord(String json) throws IOException {
+        if (ndjson) {
+            out.write(json);
+            out.write('\n');
+        } else {
+            GSON.toJson(JsonParser.parseString(json), jsonWriter);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!ndjson) {
+            jsonWriter.endArray();
+        }
+        jsonWriter.close();
+    }
+}
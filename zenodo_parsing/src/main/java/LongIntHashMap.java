@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+// Open-addressing hash map from non-negative long keys to int values
+// Entries are stored densely in insertion order, the hash table only holds entry indices
+public class LongIntHashMap {
+
+    public static final int MISSING = -1;
+
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    private long[] keys;
+    private int[] values;
+    private int[] slots;
+    private int size = 0;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        keys = new long[capacity];
+        values = new int[capacity];
+        slots = new int[tableSize(capacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(long key) {
+        int slot = findSlot(key);
+        int index = slots[slot] - 1;
+        return index < 0 ? MISSING : values[index];
+    }
+
+    public boolean containsKey(long key) {
+        return slots[findSlot(key)] != 0;
+    }
+
+    // Returns false and keeps the existing value if the key is already present
+    public boolean putIfAbsent(long key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        int slot = findSlot(key);
+        if (slots[slot] != 0) {
+            return false;
+        }
+        if (size == keys.length) {
+            grow();
+            slot = findSlot(key);
+        }
+        keys[size] = key;
+        values[size] = value;
+        slots[slot] = ++size;
+        return true;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    public int valueAt(int index) {
+        return values[index];
+    }
+
+    private int findSlot(long key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0 && keys[slots[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        slots = new int[tableSize(capacity)];
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    // Keeps the load factor of the hash table at or below 0.5
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 2;
+    }
+
+    private static int hash(long key) {
+        // Finalizer of MurmurHash3, ORCIDs are sequential and would cluster otherwise
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -1,6 +1,3 @@
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 
 public class Main {
@@ -24,22 +21,62 @@ statistics.json.gz
 =====
 */
 
-    public static void main(String[] args) throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+    public static void main(String[] args) throws IOException, InterruptedException {
 
         // STEP 1: download dblp dump (2 files)
         // curl -O https://dblp.org/xml/release/dblp-2023-01-03.xml.gz
         // curl -O https://dblp.org/xml/release/dblp-2019-11-22.dtd
 
+        // Intermediate files are chosen by name: "*.ndjson" holds one compact record per line, ".gz" compresses any of them
+        // e.g. "zenodo_dump.ndjson.gz", "dblp_orcids.ndjson.gz" and "statistics.ndjson.gz", see JsonFiles
+
+        // STEPS 2-4 run as a pipeline: the harvest and the dblp parse do not depend on each other and run at the same time,
+        // statistics start once both are done. Stages whose outputs are up to date are skipped, see Pipeline
+        Pipeline pipeline = new Pipeline();
+
         // STEP 2: Retrieve Zenodo data from web-API
-        new ZenodoRequest("zenodo_dump.json");
+        // The complete records are dumped, "new ZenodoRequest.Options().raw(false)" only keeps the fields used by Statistics
+        pipeline.stage("zenodo", () -> new ZenodoRequest("zenodo_dump.json"))
+                .outputs("zenodo_dump.json")
+                .records("zenodo.records");
+
+        // An earlier dump can be replayed locally to test the harvester or to measure different concurrency settings:
+        // try (ZenodoReplayServer server = new ZenodoReplayServer("zenodo_dump.json", 0, 100, 60, 50)) {
+        //     new ZenodoRequest("zenodo_replay.json", new ZenodoRequest.Options().baseUrl(server.baseUrl()).concurrency(8));
+        // }
 
         // STEP 3: Parse local copy DBLP in XML/DTD files
-        // If DTD file does not exist in the current directory, set path accordingly
+        // With ".dtd(false)" the character entities of dblp.dtd are resolved from a built-in table and the DTD is not needed
+        // Otherwise, if DTD file does not exist in the current directory, set path accordingly
         //System.setProperty("user.dir", "path/to/dblp.xml/and/dblp.dtd");
-        new DblpInput("dblp-2023-01-03.xml.gz", "dblp_orcids.json");
+        // ".orcidsOnly(true)" skips the names of publications without ORCID, which are not needed for the output
+        // Use ".threads(n)" to process records on n worker threads while the XML file is parsed
+        // An uncompressed dblp.xml can be memory-mapped and scanned on all cores with ".parser(DblpInput.Parser.MAPPED)"
+        pipeline.stage("dblp", () -> new DblpInput("dblp-2023-01-03.xml.gz", "dblp_orcids.json", new DblpInput.Options().indexFile("dblp_orcids.idx").dtd(false).orcidsOnly(true)))
+                .inputs("dblp-2023-01-03.xml.gz")
+                .outputs("dblp_orcids.json", "dblp_orcids.idx")
+                .records("dblp.records");
 
         // STEP 4: Generate statistics
-        new Statistics("dblp_orcids.json", "zenodo_dump.json", "statistics.json");
+        // The binary index is memory-mapped, "dblp_orcids.json" can be used instead but has to be parsed first
+        // Use "new Statistics.Options().threads(n)" to match chunks of Zenodo records on n threads
+        pipeline.stage("statistics", () -> new Statistics("dblp_orcids.idx", "zenodo_dump.json", "statistics.json"))
+                .inputs("dblp_orcids.idx", "zenodo_dump.json")
+                .outputs("statistics.json")
+                .records("statistics.records");
+
+        // Once an ORCID index exists, e.g. for a new harvest against the last dblp release, statistics can be computed
+        // while the records arrive instead of re-reading the finished dump:
+        // new ZenodoRequest("zenodo_dump.json", new ZenodoRequest.Options().listener(new Statistics.Streaming("dblp_orcids.idx", "statistics.json")));
+
+        pipeline.run();
+
+        // Monthly dblp releases can be compared against a previous run instead of recomputing all statistics:
+        // new DblpInput("dblp-2023-02-01.xml.gz", "dblp_orcids_new.json", new DblpInput.Options().delta("dblp_orcids.idx", "dblp_orcids_delta.json"));
+        // new StatisticsDelta("dblp_orcids_delta.json", "zenodo_dump.json", "statistics.json", "statistics_new.json");
+
+        // Counters, timers and histograms of all stages, JFR events are recorded when started with -XX:StartFlightRecording
+        Metrics.writeReport("run_report.json");
 
         System.out.println("*** [Finished] ***");
     }
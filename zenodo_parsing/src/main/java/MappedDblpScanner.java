@@ -0,0 +1,465 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Extracts records from an uncompressed dblp.xml without an XML parser
+// The file is memory-mapped and split at record boundaries, so the ranges can be scanned on several threads at the same time
+// Only the key, author and editor names with their orcid attributes and urls are decoded, everything else is skipped as bytes
+// Relies on the regular layout of dblp.xml: ISO-8859-1, markup only for elements, and the character entities of dblp.dtd
+public class MappedDblpScanner implements Closeable {
+
+    // A part of the file which starts with a record and ends where the next range starts
+    record Range(long start, long end) {
+        long length() {
+            return end - start;
+        }
+    }
+
+    private static final LongAdder recordCounter = Metrics.counter("dblp.records");
+    private static final LongAdder skippedCounter = Metrics.counter("dblp.skipped");
+
+    // A single mapping is limited to 2 GB, ranges stay far below that
+    private static final long MAX_RANGE_SIZE = 256L << 20;
+
+    // Record starts are searched in windows of this size
+    private static final int WINDOW_SIZE = 1 << 20;
+
+    private static final byte[] AUTHOR = bytes("author");
+    private static final byte[] EDITOR = bytes("editor");
+    private static final byte[] URL = bytes("url");
+    private static final byte[] KEY = bytes("key");
+    private static final byte[] ORCID = bytes("orcid");
+    private static final byte[] COMMENT_START = bytes("<!--");
+
+    // All record tags of dblp, records whose tag is not queried are skipped
+    private static final String[] RECORD_NAMES = DblpInput.RECORD_TAGS.toArray(new String[0]);
+    private static final byte[][] RECORD_TAGS = Arrays.stream(RECORD_NAMES).map(MappedDblpScanner::bytes).toArray(byte[][]::new);
+
+    private final FileChannel channel;
+    private final Set<String> queryTags;
+    private final boolean orcidsOnly;
+
+    public MappedDblpScanner(String file, Set<String> tags) throws IOException {
+        this(file, tags, false);
+    }
+
+    // With "orcidsOnly", records other than "www" only contain the authors and editors with an "orcid" attribute
+    public MappedDblpScanner(String file, Set<String> tags, boolean orcidsOnly) throws IOException {
+        channel = FileChannel.open(Path.of(file), StandardOpenOption.READ);
+        queryTags = tags;
+        this.orcidsOnly = orcidsOnly;
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    // Splits the file into about "count" ranges, more if the file is too large for mappings of MAX_RANGE_SIZE
+    public List<Range> split(int count) throws IOException {
+        long size = channel.size();
+        long parts = Math.max(count, (size + MAX_RANGE_SIZE - 1) / MAX_RANGE_SIZE);
+
+        List<Long> starts = new ArrayList<>();
+        long start = findRecord(0);
+        while (start >= 0) {
+            starts.add(start);
+            long next = Math.max(size * starts.size() / parts, start + 1);
+            start = next < size ? findRecord(next) : -1;
+        }
+
+        List<Range> ranges = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            ranges.add(new Range(starts.get(i), i + 1 < starts.size() ? starts.get(i + 1) : size));
+        }
+        for (Range range : ranges) {
+            if (range.length() > Integer.MAX_VALUE) {
+                throw new IOException("Record at offset " + range.start() + " is too large to be mapped");
+            }
+        }
+        return ranges;
+    }
+
+    // Offset of the first record start tag at or after "from", or -1
+    private long findRecord(long from) throws IOException {
+        long size = channel.size();
+        while (from < size) {
+            int length = (int) Math.min(WINDOW_SIZE, size - from);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '<' && recordTag(window, i + 1) >= 0) {
+                    return from + i;
+                }
+            }
+            if (from + length == size) {
+                break;
+            }
+            // A start tag might cross the end of the window
+            from += length - 16;
+        }
+        return -1;
+    }
+
+    // Index in RECORD_TAGS of the tag name starting at "position", followed by whitespace or ">", or -1
+    private static int recordTag(MappedByteBuffer buffer, int position) {
+        for (int t = 0; t < RECORD_TAGS.length; t++) {
+            byte[] tag = RECORD_TAGS[t];
+            int end = position + tag.length;
+            if (end < buffer.limit() && matches(buffer, position, tag) && isNameEnd(buffer.get(end))) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    public void scan(Range range, Consumer<DblpRecord> consumer) throws IOException {
+        new RangeScanner(channel.map(FileChannel.MapMode.READ_ONLY, range.start(), range.length()), range.start()).scan(consumer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Scans one range, not thread-safe
+    private final class RangeScanner {
+        private final MappedByteBuffer buffer;
+        private final long offset;
+        private final int limit;
+
+        // Bytes of the value which is decoded
+        private byte[] scratch = new byte[256];
+        private char[] chars = new char[256];
+
+        private RangeScanner(MappedByteBuffer buffer, long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.limit = buffer.limit();
+        }
+
+        void scan(Consumer<DblpRecord> consumer) throws IOException {
+            int position = 0;
+            while ((position = indexOf('<', position)) >= 0) {
+                if (buffer.get(position + 1) == '!' || buffer.get(position + 1) == '?') {
+                    position = skipMarkup(position);
+                    continue;
+                }
+                int tag = recordTag(buffer, position + 1);
+                if (tag < 0) {
+                    // "</dblp>" at the end of the file
+                    position++;
+                    continue;
+                }
+                String name = RECORD_NAMES[tag];
+                if (queryTags.contains(name)) {
+                    recordCounter.increment();
+                    position = readRecord(name, position + 1 + RECORD_TAGS[tag].length, consumer);
+                } else {
+                    skippedCounter.increment();
+                    position = skipElement(position + 1, position + 1 + RECORD_TAGS[tag].length);
+                }
+            }
+        }
+
+        // Same result as StaxRecordParser.readRecord(), returns the position after the end tag
+        private int readRecord(String tag, int position, Consumer<DblpRecord> consumer) throws IOException {
+            List<DblpRecord.Contributor> authors = new ArrayList<>(4);
+            List<DblpRecord.Contributor> editors = new ArrayList<>(0);
+            List<String> urls = new ArrayList<>(0);
+
+            // Names without ORCID and urls of publications are skipped without decoding them
+            boolean filtered = orcidsOnly && !tag.equals("www");
+
+            String[] key = {""};
+            position = readAttributes(position, KEY, key);
+            if (buffer.get(position - 2) != '/') {
+                while (true) {
+                    position = indexOf('<', position);
+                    if (position < 0) {
+                        throw error("Unexpected end of record", limit);
+                    }
+                    if (buffer.get(position + 1) == '/') {
+                        // End tag of the record, nested markup is skipped below
+                        position = indexOf('>', position) + 1;
+                        break;
+                    }
+                    if (buffer.get(position + 1) == '!' || buffer.get(position + 1) == '?') {
+                        position = skipMarkup(position);
+                        continue;
+                    }
+
+                    int nameStart = position + 1;
+                    int nameEnd = nameEnd(nameStart);
+                    if (equals(nameStart, nameEnd, AUTHOR)) {
+                        position = readContributor(nameEnd, authors, filtered);
+                    } else if (equals(nameStart, nameEnd, EDITOR)) {
+                        position = readContributor(nameEnd, editors, filtered);
+                    } else if (!filtered && equals(nameStart, nameEnd, URL)) {
+                        position = readAttributes(nameEnd, null, null);
+                        int textEnd = buffer.get(position - 2) == '/' ? position : indexOf('<', position);
+                        urls.add(decode(position, textEnd, false));
+                        position = textEnd == position ? position : indexOf('>', textEnd) + 1;
+                    } else {
+                        position = skipElement(nameStart, nameEnd);
+                    }
+                }
+            }
+
+            consumer.accept(new DblpRecord(tag, key[0], authors, editors, urls));
+            return position;
+        }
+
+        private int readContributor(int position, List<DblpRecord.Contributor> contributors, boolean filtered) throws IOException {
+            String[] orcid = {null};
+            position = readAttributes(position, ORCID, orcid);
+            if (filtered && orcid[0] == null) {
+                return buffer.get(position - 2) == '/' ? position : indexOf('>', indexOf('<', position)) + 1;
+            }
+            if (buffer.get(position - 2) == '/') {
+                contributors.add(new DblpRecord.Contributor("", orcid[0]));
+                return position;
+            }
+            int textEnd = indexOf('<', position);
+            contributors.add(new DblpRecord.Contributor(decode(position, textEnd, false), orcid[0]));
+            return indexOf('>', textEnd) + 1;
+        }
+
+        // Reads the attributes of a start tag, stores the value of "wanted" and returns the position after ">"
+        private int readAttributes(int position, byte[] wanted, String[] value) throws IOException {
+            while (true) {
+                byte b = buffer.get(position);
+                if (b == '>') {
+                    return position + 1;
+                } else if (b == '/' && buffer.get(position + 1) == '>') {
+                    return position + 2;
+                } else if (isWhitespace(b)) {
+                    position++;
+                    continue;
+                }
+
+                int nameStart = position;
+                int nameEnd = position;
+                while (buffer.get(nameEnd) != '=' && !isWhitespace(buffer.get(nameEnd))) {
+                    nameEnd++;
+                }
+                position = nameEnd;
+                while (buffer.get(position) != '"' && buffer.get(position) != '\'') {
+                    if (position - nameEnd > 16) {
+                        throw error("Malformed attribute", nameStart);
+                    }
+                    position++;
+                }
+                byte quote = buffer.get(position);
+                int valueStart = position + 1;
+                int valueEnd = indexOf(quote, valueStart);
+                if (valueEnd < 0) {
+                    throw error("Unterminated attribute", nameStart);
+                }
+                if (wanted != null && equals(nameStart, nameEnd, wanted)) {
+                    value[0] = decode(valueStart, valueEnd, true);
+                }
+                position = valueEnd + 1;
+            }
+        }
+
+        // Skips an element with all its content, returns the position after its end tag
+        private int skipElement(int nameStart, int nameEnd) throws IOException {
+            int length = nameEnd - nameStart;
+            int position = readAttributes(nameEnd, null, null);
+            if (buffer.get(position - 2) == '/') {
+                return position;
+            }
+            // Elements of dblp do not nest into elements of the same name
+            while (true) {
+                position = indexOf('<', position);
+                if (position < 0) {
+                    throw error("Unexpected end of element", limit);
+                }
+                if (buffer.get(position + 1) == '/' && regionMatches(position + 2, nameStart, length) && !isNameByte(buffer.get(position + 2 + length))) {
+                    return indexOf('>', position) + 1;
+                }
+                position++;
+            }
+        }
+
+        private boolean regionMatches(int position, int other, int length) {
+            if (position + length > limit) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(position + i) != buffer.get(other + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Skips a comment or processing instruction, comments may contain markup
+        private int skipMarkup(int position) throws IOException {
+            if (matches(buffer, position, COMMENT_START)) {
+                int end = position + COMMENT_START.length;
+                while ((end = indexOf('>', end)) >= 0 && !(buffer.get(end - 1) == '-' && buffer.get(end - 2) == '-')) {
+                    end++;
+                }
+                if (end < 0) {
+                    throw error("Unterminated comment", position);
+                }
+                return end + 1;
+            }
+            return indexOf('>', position) + 1;
+        }
+
+        private int nameEnd(int position) {
+            while (isNameByte(buffer.get(position))) {
+                position++;
+            }
+            return position;
+        }
+
+        private byte[] name(int start, int end) {
+            if (scratch.length < end - start) {
+                scratch = new byte[end - start];
+            }
+            buffer.get(start, scratch, 0, end - start);
+            return scratch;
+        }
+
+        private boolean equals(int start, int end, byte[] name) {
+            return end - start == name.length && matches(buffer, start, name);
+        }
+
+        private int indexOf(int b, int position) {
+            for (int i = position; i < limit; i++) {
+                if (buffer.get(i) == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Decodes ISO-8859-1 text with entities and line ends like an XML parser, in attributes whitespace becomes a space
+        private String decode(int start, int end, boolean attribute) throws IOException {
+            int length = end - start;
+            byte[] bytes = name(start, end);
+
+            boolean plain = true;
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[i];
+                if (b == '&' || b == '\r' || (attribute && (b == '\n' || b == '\t'))) {
+                    plain = false;
+                    break;
+                }
+            }
+            if (plain) {
+                return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+            }
+
+            if (chars.length < length) {
+                chars = new char[length];
+            }
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                int c = bytes[i] & 0xFF;
+                if (c == '&') {
+                    int semicolon = i + 1;
+                    while (semicolon < length && bytes[semicolon] != ';' && semicolon - i < 12) {
+                        semicolon++;
+                    }
+                    if (semicolon >= length || bytes[semicolon] != ';') {
+                        throw error("Malformed entity", start + i);
+                    }
+                    int character = entity(bytes, i + 1, semicolon);
+                    if (character < 0) {
+                        throw error("Unknown entity '" + new String(bytes, i, semicolon - i + 1, StandardCharsets.ISO_8859_1) + "'", start + i);
+                    }
+                    if (Character.isBmpCodePoint(character)) {
+                        chars[count++] = (char) character;
+                    } else {
+                        // A surrogate pair takes the place of at least 8 bytes of "&#xhhhhh;"
+                        count += Character.toChars(character, chars, count);
+                    }
+                    i = semicolon;
+                } else if (c == '\r') {
+                    // "\r\n" and a single "\r" are line ends
+                    chars[count++] = attribute ? ' ' : '\n';
+                    if (i + 1 < length && bytes[i + 1] == '\n') {
+                        i++;
+                    }
+                } else if (attribute && (c == '\n' || c == '\t')) {
+                    chars[count++] = ' ';
+                } else {
+                    chars[count++] = (char) c;
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private int entity(byte[] bytes, int start, int end) {
+            if (end - start > 1 && bytes[start] == '#') {
+                try {
+                    boolean hex = bytes[start + 1] == 'x';
+                    String digits = new String(bytes, hex ? start + 2 : start + 1, end - (hex ? start + 2 : start + 1), StandardCharsets.ISO_8859_1);
+                    int character = Integer.parseInt(digits, hex ? 16 : 10);
+                    return Character.isValidCodePoint(character) ? character : -1;
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+            switch (new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)) {
+                case "amp":
+                    return '&';
+                case "lt":
+                    return '<';
+                case "gt":
+                    return '>';
+                case "quot":
+                    return '"';
+                case "apos":
+                    return '\'';
+                default:
+                    return DblpEntityReader.character(bytes, start, end);
+            }
+        }
+
+        private IOException error(String message, int position) {
+            return new IOException(message + " at offset " + (offset + position));
+        }
+    }
+
+    private static boolean matches(MappedByteBuffer buffer, int position, byte[] bytes) {
+        if (position + bytes.length > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameEnd(byte b) {
+        return b == '>' || b == '/' || isWhitespace(b);
+    }
+
+    private static boolean isNameByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '_' || b == '.' || b == ':';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r';
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,328 @@
+import com.google.gson.stream.JsonWriter;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters, gauges, timers and histograms of the whole pipeline, written as a JSON run report
+// Instruments are created on first use and can be updated from any thread
+// Stages and HTTP requests are also emitted as JFR events, which only cost something while a recording is running,
+// e.g. "java -XX:StartFlightRecording=filename=run.jfr ..."
+public final class Metrics {
+
+    private static final Instant started = Instant.now();
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> timers = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final List<StageSummary> stages = new ArrayList<>();
+    private static final Set<Stage> activeStages = new HashSet<>();
+
+    private Metrics() {
+    }
+
+    // Hot paths keep the returned instruments in fields instead of looking them up for every update
+    static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    static void gauge(String name, long value) {
+        gauges.computeIfAbsent(name, n -> new AtomicLong()).set(value);
+    }
+
+    // Durations in nanoseconds, reported in milliseconds
+    static Histogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    // Measures a step of Main, "recordCounter" is the counter whose increase is reported as records per second
+    static Stage stage(String name, String recordCounter) {
+        return new Stage(name, recordCounter);
+    }
+
+    // Log-linear buckets with 8 sub-buckets per power of two, so percentiles are accurate to 12.5 %
+    static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64 << SUB_BITS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+        void record(long value) {
+            value = Math.max(value, 0);
+            buckets.incrementAndGet(index(value));
+            count.increment();
+            sum.add(value);
+            min.accumulateAndGet(value, Math::min);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        // Convenience for timers: records the time since "startNanos" taken from System.nanoTime()
+        void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        // Upper bound of the bucket which contains the given share of all values
+        long percentile(double share) {
+            long total = count.sum();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(share * total), 1);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private static int index(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_COUNT - 1));
+        }
+
+        private static long upperBound(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+            int shift = (index >>> SUB_BITS) - 1;
+            long sub = (index & (SUB_COUNT - 1)) | SUB_COUNT;
+            return ((sub + 1) << shift) - 1;
+        }
+
+        private void write(JsonWriter jsonWriter, double scale) throws IOException {
+            long total = count.sum();
+            jsonWriter.beginObject();
+            jsonWriter.name("count").value(total);
+            if (total > 0) {
+                jsonWriter.name("sum").value(sum.sum() / scale);
+                jsonWriter.name("mean").value(sum.sum() / scale / total);
+                jsonWriter.name("min").value(min.get() / scale);
+                jsonWriter.name("p50").value(percentile(0.5) / scale);
+                jsonWriter.name("p90").value(percentile(0.9) / scale);
+                jsonWriter.name("p99").value(percentile(0.99) / scale);
+                jsonWriter.name("max").value(max.get() / scale);
+            }
+            jsonWriter.endObject();
+        }
+    }
+
+    // GC and peak heap are measured for the whole JVM, for stages which overlapped with another stage they include both stages
+    private record StageSummary(String name, long millis, long records, boolean overlapped, long gcCount, long gcMillis, long peakHeapBytes) {
+    }
+
+    static final class Stage implements AutoCloseable {
+        private final String name;
+        private final String recordCounter;
+        private final long startNanos = System.nanoTime();
+        private final long startRecords;
+        private final long startGcCount;
+        private final long startGcMillis;
+        private final StageEvent event = new StageEvent();
+        private boolean overlapped = false;
+
+        private Stage(String name, String recordCounter) {
+            this.name = name;
+            this.recordCounter = recordCounter;
+            startRecords = recordCounter == null ? 0 : counter(recordCounter).sum();
+            startGcCount = gcCount();
+            startGcMillis = gcMillis();
+            synchronized (activeStages) {
+                if (activeStages.isEmpty()) {
+                    // Resetting the peak while another stage runs would falsify the peak of that stage
+                    for (MemoryPoolMXBean pool : heapPools()) {
+                        pool.resetPeakUsage();
+                    }
+                } else {
+                    overlapped = true;
+                    activeStages.forEach(stage -> stage.overlapped = true);
+                }
+                activeStages.add(this);
+            }
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            long millis = (System.nanoTime() - startNanos) / 1_000_000;
+            long records = recordCounter == null ? 0 : counter(recordCounter).sum() - startRecords;
+            long peakHeapBytes = 0;
+            for (MemoryPoolMXBean pool : heapPools()) {
+                peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+            boolean overlapped;
+            synchronized (activeStages) {
+                activeStages.remove(this);
+                overlapped = this.overlapped;
+            }
+            StageSummary summary = new StageSummary(name, millis, records, overlapped, gcCount() - startGcCount, gcMillis() - startGcMillis, peakHeapBytes);
+            synchronized (stages) {
+                stages.add(summary);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = name;
+                event.records = records;
+                event.peakHeap = peakHeapBytes;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("wherecsdata.Stage")
+    @Label("Pipeline Stage")
+    @Category("where-is-cs-data")
+    static class StageEvent extends Event {
+        @Label("Stage")
+        String stage;
+
+        @Label("Records")
+        long records;
+
+        @Label("Peak Heap")
+        @DataAmount
+        long peakHeap;
+    }
+
+    @Name("wherecsdata.HttpRequest")
+    @Label("Zenodo Request")
+    @Category("where-is-cs-data")
+    static class HttpRequestEvent extends Event {
+        @Label("URL")
+        String url;
+
+        @Label("Status")
+        int status;
+
+        @Label("Rate Limit Remaining")
+        int remaining;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(gc.getCollectionCount(), 0);
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(gc.getCollectionTime(), 0);
+        }
+        return total;
+    }
+
+    // Writes all instruments of this run, the file may be JSON or compressed, see JsonFiles
+    static void writeReport(String reportFile) throws IOException {
+        try (JsonWriter jsonWriter = new JsonWriter(JsonFiles.newWriter(reportFile))) {
+            jsonWriter.setIndent("  ");
+            jsonWriter.setHtmlSafe(false);
+
+            jsonWriter.beginObject();
+            jsonWriter.name("started").value(started.toString());
+            jsonWriter.name("finished").value(Instant.now().toString());
+
+            jsonWriter.name("jvm").beginObject();
+            jsonWriter.name("version").value(Runtime.version().toString());
+            jsonWriter.name("availableProcessors").value(Runtime.getRuntime().availableProcessors());
+            jsonWriter.name("maxHeapBytes").value(Runtime.getRuntime().maxMemory());
+            jsonWriter.name("gc").beginArray();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                jsonWriter.beginObject();
+                jsonWriter.name("name").value(gc.getName());
+                jsonWriter.name("count").value(gc.getCollectionCount());
+                jsonWriter.name("millis").value(gc.getCollectionTime());
+                jsonWriter.endObject();
+            }
+            jsonWriter.endArray();
+            jsonWriter.endObject();
+
+            jsonWriter.name("stages").beginArray();
+            synchronized (stages) {
+                for (StageSummary stage : stages) {
+                    jsonWriter.beginObject();
+                    jsonWriter.name("name").value(stage.name());
+                    jsonWriter.name("millis").value(stage.millis());
+                    jsonWriter.name("records").value(stage.records());
+                    jsonWriter.name("recordsPerSecond").value(stage.records() * 1000.0 / Math.max(stage.millis(), 1));
+                    jsonWriter.name("overlapped").value(stage.overlapped());
+                    jsonWriter.name("gcCount").value(stage.gcCount());
+                    jsonWriter.name("gcMillis").value(stage.gcMillis());
+                    jsonWriter.name("peakHeapBytes").value(stage.peakHeapBytes());
+                    jsonWriter.endObject();
+                }
+            }
+            jsonWriter.endArray();
+
+            // Sorted by name, so reports of different runs can be compared line by line
+            jsonWriter.name("counters").beginObject();
+            for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+                jsonWriter.name(counter.getKey()).value(counter.getValue().sum());
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.name("gauges").beginObject();
+            for (Map.Entry<String, AtomicLong> gauge : new TreeMap<>(gauges).entrySet()) {
+                jsonWriter.name(gauge.getKey()).value(gauge.getValue().get());
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.name("timersMillis").beginObject();
+            for (Map.Entry<String, Histogram> timer : new TreeMap<>(timers).entrySet()) {
+                jsonWriter.name(timer.getKey());
+                timer.getValue().write(jsonWriter, 1_000_000.0);
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.name("histograms").beginObject();
+            for (Map.Entry<String, Histogram> histogram : new TreeMap<>(histograms).entrySet()) {
+                jsonWriter.name(histogram.getKey());
+                histogram.getValue().write(jsonWriter, 1.0);
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.endObject();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+// Maps each distinct name to a dense int id, ids are handed out in the order the names are first seen
+// The chars of all names are stored in a single array, a lookup hashes and compares chars without creating a String
+public class NameDictionary {
+
+    private char[] chars;
+    private int charCount = 0;
+
+    private int[] offsets;
+    private int[] hashes;
+    private int count = 0;
+
+    // Holds id + 1, 0 marks an empty slot
+    private int[] slots;
+
+    public NameDictionary(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        chars = new char[capacity * 16];
+        offsets = new int[capacity + 1];
+        hashes = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int id(CharSequence name) {
+        int length = name.length();
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && matches(id, name)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (count == hashes.length) {
+            grow();
+            return id(name);
+        }
+        if (charCount + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + length));
+        }
+
+        int id = count++;
+        for (int i = 0; i < length; i++) {
+            chars[charCount + i] = name.charAt(i);
+        }
+        charCount += length;
+        offsets[id + 1] = charCount;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        return id;
+    }
+
+    public String name(int id) {
+        return new String(chars, offsets[id], offsets[id + 1] - offsets[id]);
+    }
+
+    private boolean matches(int id, CharSequence name) {
+        int offset = offsets[id];
+        if (offsets[id + 1] - offset != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (chars[offset + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        int capacity = hashes.length * 2;
+        offsets = Arrays.copyOf(offsets, capacity + 1);
+        hashes = Arrays.copyOf(hashes, capacity);
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,140 @@
+// An ORCID consists of 15 decimal digits and a check symbol (0-9 or X), e.g. "0000-0002-1825-0097"
+// It is packed into a single long as (first 15 digits) * 11 + (check symbol value, X = 10)
+public final class OrcidCodec {
+
+    public static final long INVALID = -1;
+
+    private static final int LENGTH = 19;
+
+    // Accepted in front of an ORCID by parse(), compared ignoring case
+    private static final String[] PREFIXES = {"https://orcid.org/", "http://orcid.org/", "https://www.orcid.org/", "http://www.orcid.org/", "orcid.org/", "www.orcid.org/"};
+
+    private OrcidCodec() {
+    }
+
+    // ORCIDs from dblp and Zenodo, e.g. "https://orcid.org/0000-0002-1825-0097", "0000-0002-1825-0097" or "000000021825009x"
+    // Surrounding whitespace, one of PREFIXES and a trailing "/" are skipped, hyphens are optional
+    // Returns INVALID unless the ORCID has a valid ISO 7064 MOD 11-2 check symbol
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    public static long parse(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        for (String prefix : PREFIXES) {
+            if (startsWithIgnoreCase(text, start, end, prefix)) {
+                start += prefix.length();
+                break;
+            }
+        }
+        if (end > start && text.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        boolean hyphens;
+        if (end - start == LENGTH) {
+            hyphens = true;
+        } else if (end - start == 16) {
+            hyphens = false;
+        } else {
+            return INVALID;
+        }
+
+        long digits = 0;
+        int total = 0;
+        int count = 0;
+        for (int i = start; i < end - 1; i++) {
+            char c = text.charAt(i);
+            if (hyphens && (i - start) % 5 == 4) {
+                if (c != '-') {
+                    return INVALID;
+                }
+            } else if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+                total = (total + c - '0') * 2;
+                count++;
+            } else {
+                return INVALID;
+            }
+        }
+
+        char check = text.charAt(end - 1);
+        int value;
+        if (check >= '0' && check <= '9') {
+            value = check - '0';
+        } else if (check == 'X' || check == 'x') {
+            value = 10;
+        } else {
+            return INVALID;
+        }
+        if (count != 15 || value != (12 - total % 11) % 11) {
+            return INVALID;
+        }
+        return digits * 11 + value;
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence text, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = text.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns INVALID if the string is not an ORCID in its canonical "dddd-dddd-dddd-dddC" form
+    // Only used for files written by this project, external ORCIDs are read with parse()
+    public static long encode(String orcid) {
+        if (orcid.length() != LENGTH) {
+            return INVALID;
+        }
+        long digits = 0;
+        for (int i = 0; i < LENGTH - 1; i++) {
+            char c = orcid.charAt(i);
+            if (i % 5 == 4) {
+                if (c != '-') {
+                    return INVALID;
+                }
+            } else if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+            } else {
+                return INVALID;
+            }
+        }
+        char check = orcid.charAt(LENGTH - 1);
+        if (check >= '0' && check <= '9') {
+            return digits * 11 + (check - '0');
+        } else if (check == 'X') {
+            return digits * 11 + 10;
+        }
+        return INVALID;
+    }
+
+    public static String decode(long orcid) {
+        char[] chars = new char[LENGTH];
+        int check = (int) (orcid % 11);
+        long digits = orcid / 11;
+        chars[LENGTH - 1] = check == 10 ? 'X' : (char) ('0' + check);
+        for (int i = LENGTH - 2; i >= 0; i--) {
+            if (i % 5 == 4) {
+                chars[i] = '-';
+            } else {
+                chars[i] = (char) ('0' + digits % 10);
+                digits /= 10;
+            }
+        }
+        return new String(chars);
+    }
+}
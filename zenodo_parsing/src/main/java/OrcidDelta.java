@@ -0,0 +1,95 @@
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// Differences of the ORCID -> dblp key mapping between two dblp releases
+//
+// {
+//   "added":   {"<orcid>": {"key": ..., "verified": ...}, ...},
+//   "removed": {"<orcid>": {"key": ..., "verified": ...}, ...},
+//   "changed": {"<orcid>": {"key": ..., "verified": ..., "previousKey": ..., "previousVerified": ...}, ...}
+// }
+public class OrcidDelta {
+
+    private OrcidDelta() {
+    }
+
+    public static void write(OrcidLookup previous, OrcidLookup current, String deltaFile) throws IOException {
+        int added = 0;
+        int removed = 0;
+        int changed = 0;
+
+        try (JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(deltaFile), StandardCharsets.UTF_8)))) {
+            jsonWriter.setIndent("  ");
+            jsonWriter.setHtmlSafe(false);
+
+            jsonWriter.beginObject();
+
+            jsonWriter.name("added");
+            jsonWriter.beginObject();
+            for (int i = 0; i < current.size(); i++) {
+                long orcid = current.orcidAt(i);
+                if (previous.find(orcid) == OrcidLookup.MISSING) {
+                    writeEntry(jsonWriter, orcid, current, current.entryAt(i));
+                    jsonWriter.endObject();
+                    added++;
+                }
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.name("removed");
+            jsonWriter.beginObject();
+            for (int i = 0; i < previous.size(); i++) {
+                long orcid = previous.orcidAt(i);
+                if (current.find(orcid) == OrcidLookup.MISSING) {
+                    writeEntry(jsonWriter, orcid, previous, previous.entryAt(i));
+                    jsonWriter.endObject();
+                    removed++;
+                }
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.name("changed");
+            jsonWriter.beginObject();
+            for (int i = 0; i < current.size(); i++) {
+                long orcid = current.orcidAt(i);
+                int previousEntry = previous.find(orcid);
+                if (previousEntry == OrcidLookup.MISSING) {
+                    continue;
+                }
+                int entry = current.entryAt(i);
+                String previousKey = previous.key(previousEntry);
+                boolean previousVerified = OrcidLookup.isVerified(previousEntry);
+                if (OrcidLookup.isVerified(entry) != previousVerified || !current.key(entry).equals(previousKey)) {
+                    writeEntry(jsonWriter, orcid, current, entry);
+                    jsonWriter.name("previousKey");
+                    jsonWriter.value(previousKey);
+                    jsonWriter.name("previousVerified");
+                    jsonWriter.value(previousVerified);
+                    jsonWriter.endObject();
+                    changed++;
+                }
+            }
+            jsonWriter.endObject();
+
+            jsonWriter.endObject();
+        }
+
+        System.out.println("ORCIDs added since previous release   : " + added);
+        System.out.println("ORCIDs removed since previous release : " + removed);
+        System.out.println("ORCIDs changed since previous release : " + changed);
+    }
+
+    // Leaves the entry object open for additional fields
+    private static void writeEntry(JsonWriter jsonWriter, long orcid, OrcidLookup lookup, int entry) throws IOException {
+        jsonWriter.name(OrcidCodec.decode(orcid));
+        jsonWriter.beginObject();
+
+        jsonWriter.name("key");
+        jsonWriter.value(lookup.key(entry));
+
+        jsonWriter.name("verified");
+        jsonWriter.value(OrcidLookup.isVerified(entry));
+    }
+}
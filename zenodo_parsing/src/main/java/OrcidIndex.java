@@ -0,0 +1,134 @@
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Read-only, memory-mapped ORCID index written by DblpInput as an alternative to dblp_orcids.json
+//
+// Layout (big-endian):
+//   header   : magic, version, count, verified count, string table size (5 ints)
+//   orcids   : count longs, packed by OrcidCodec and sorted ascending
+//   entries  : count ints, offset of the dblp key in the string table shifted left by one, verified flag in bit 0
+//   strings  : dblp keys, each as an unsigned short length followed by UTF-8 bytes
+public class OrcidIndex implements OrcidLookup {
+
+    private static final int MAGIC = 0x4F524344; // "ORCD"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int verifiedCount;
+    private final int entriesOffset;
+    private final int stringsOffset;
+
+    private OrcidIndex(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an ORCID index file");
+        }
+        count = buffer.getInt(8);
+        verifiedCount = buffer.getInt(12);
+        entriesOffset = HEADER_SIZE + count * Long.BYTES;
+        stringsOffset = entriesOffset + count * Integer.BYTES;
+    }
+
+    public static OrcidIndex open(String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new OrcidIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static void write(OrcidTable table, String file) throws IOException {
+        StringPool keys = table.keys();
+
+        // dblp keys are written once each, in the order of their StringPool ids
+        int[] keyOffsets = new int[keys.size()];
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        DataOutputStream stringsOut = new DataOutputStream(strings);
+        for (int id = 0; id < keys.size(); id++) {
+            keyOffsets[id] = strings.size();
+            byte[] key = keys.get(id).getBytes(StandardCharsets.UTF_8);
+            stringsOut.writeShort(key.length);
+            stringsOut.write(key);
+        }
+
+        long[] orcids = new long[table.size()];
+        for (int i = 0; i < orcids.length; i++) {
+            orcids[i] = table.orcidAt(i);
+        }
+        Arrays.sort(orcids);
+
+        if ((long) HEADER_SIZE + orcids.length * 12L + strings.size() > Integer.MAX_VALUE) {
+            throw new IOException("ORCID index exceeds 2 GB");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(orcids.length);
+            out.writeInt(table.verifiedCount());
+            out.writeInt(strings.size());
+
+            for (long orcid : orcids) {
+                out.writeLong(orcid);
+            }
+            for (long orcid : orcids) {
+                int entry = table.find(orcid);
+                out.writeInt(keyOffsets[entry >>> 1] << 1 | (entry & 1));
+            }
+            strings.writeTo(out);
+        }
+    }
+
+    @Override
+    public int find(long orcid) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(HEADER_SIZE + mid * Long.BYTES);
+            if (value < orcid) {
+                low = mid + 1;
+            } else if (value > orcid) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(entriesOffset + mid * Integer.BYTES);
+            }
+        }
+        return MISSING;
+    }
+
+    @Override
+    public long orcidAt(int index) {
+        return buffer.getLong(HEADER_SIZE + index * Long.BYTES);
+    }
+
+    @Override
+    public int entryAt(int index) {
+        return buffer.getInt(entriesOffset + index * Integer.BYTES);
+    }
+
+    @Override
+    public String key(int entry) {
+        int offset = stringsOffset + (entry >>> 1);
+        int length = buffer.getShort(offset) & 0xffff;
+        byte[] bytes = new byte[length];
+        buffer.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int verifiedCount() {
+        return verifiedCount;
+    }
+}
@@ -0,0 +1,30 @@
+import java.io.IOException;
+
+// Read access to ORCIDs extracted from dblp, entries are packed as described in OrcidTable
+public interface OrcidLookup {
+
+    int MISSING = -1;
+
+    // A binary ORCID index is memory-mapped, JSON output of DblpInput is read into memory
+    static OrcidLookup open(String file) throws IOException {
+        return file.endsWith(".idx") ? OrcidIndex.open(file) : OrcidTable.readJson(file);
+    }
+
+    static boolean isVerified(int entry) {
+        return (entry & 1) != 0;
+    }
+
+    // Returns the packed entry or MISSING
+    int find(long orcid);
+
+    String key(int entry);
+
+    int size();
+
+    // Entries can be enumerated by index, 0 <= index < size()
+    long orcidAt(int index);
+
+    int entryAt(int index);
+
+    int verifiedCount();
+}
@@ -0,0 +1,120 @@
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.*;
+
+// Maps packed ORCIDs (see OrcidCodec) to the dblp person key and the verification status
+// Each entry is stored as an int: the id of the key in a StringPool, shifted left by one, and the verified flag in bit 0
+public class OrcidTable implements OrcidLookup {
+
+    public interface EntryConsumer {
+        void accept(long orcid, String key, boolean verified);
+    }
+
+    private final LongIntHashMap entries;
+    private final StringPool keys;
+
+    private int verifiedCount = 0;
+
+    public OrcidTable(int expectedSize) {
+        entries = new LongIntHashMap(expectedSize);
+        keys = new StringPool(expectedSize);
+    }
+
+    // Reads the JSON output of DblpInput
+    public static OrcidTable readJson(String file) throws IOException {
+        OrcidTable table = new OrcidTable(1 << 20);
+
+        if (JsonFiles.isNdjson(file)) {
+            try (JsonRecordReader recordReader = new JsonRecordReader(file)) {
+                while (recordReader.hasNext()) {
+                    JsonObject obj = JsonParser.parseReader(recordReader.next()).getAsJsonObject();
+                    String orcid = obj.getAsJsonPrimitive("orcid").getAsString();
+                    String key = obj.getAsJsonPrimitive("key").getAsString();
+                    boolean verified = obj.getAsJsonPrimitive("verified").getAsBoolean();
+                    table.putIfAbsent(orcid, key, verified);
+                }
+            }
+            return table;
+        }
+
+        try (JsonReader jsonReader = new JsonReader(JsonFiles.newReader(file))) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String orcid = jsonReader.nextName();
+                JsonObject obj = JsonParser.parseReader(jsonReader).getAsJsonObject();
+                String key = obj.getAsJsonPrimitive("key").getAsString();
+                boolean verified = obj.getAsJsonPrimitive("verified").getAsBoolean();
+                table.putIfAbsent(orcid, key, verified);
+            }
+            jsonReader.endObject();
+        }
+        return table;
+    }
+
+    // Older files contain the orcid attributes of dblp as they were, keys which are not canonical ORCIDs can never match
+    private boolean putIfAbsent(String orcid, String key, boolean verified) {
+        long encoded = OrcidCodec.encode(orcid);
+        if (encoded == OrcidCodec.INVALID) {
+            System.err.printf("Skipping invalid ORCID '%s' of '%s'%n", orcid, key);
+            return false;
+        }
+        return putIfAbsent(encoded, key, verified);
+    }
+
+    // Returns false and keeps the existing entry if the ORCID is already present
+    public boolean putIfAbsent(long orcid, String key, boolean verified) {
+        if (entries.containsKey(orcid)) {
+            return false;
+        }
+        entries.putIfAbsent(orcid, keys.intern(key) << 1 | (verified ? 1 : 0));
+        if (verified) {
+            verifiedCount++;
+        }
+        return true;
+    }
+
+    public boolean containsKey(long orcid) {
+        return entries.containsKey(orcid);
+    }
+
+    @Override
+    public int find(long orcid) {
+        return entries.get(orcid);
+    }
+
+    @Override
+    public String key(int entry) {
+        return keys.get(entry >>> 1);
+    }
+
+    @Override
+    public long orcidAt(int index) {
+        return entries.keyAt(index);
+    }
+
+    @Override
+    public int entryAt(int index) {
+        return entries.valueAt(index);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public int verifiedCount() {
+        return verifiedCount;
+    }
+
+    // Iterates in insertion order, orcidAt() and entryAt() use the same order
+    public void forEach(EntryConsumer consumer) {
+        entries.forEach((orcid, entry) -> consumer.accept(orcid, key(entry), OrcidLookup.isVerified(entry)));
+    }
+
+    StringPool keys() {
+        return keys;
+    }
+}
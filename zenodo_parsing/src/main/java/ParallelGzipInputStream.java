@@ -0,0 +1,246 @@
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+// Decompresses gzip data ahead of the consumer on background threads
+// BGZF files (gzip members that announce their compressed size) are inflated block-parallel,
+// any other gzip file is inflated sequentially on a read-ahead thread
+public class ParallelGzipInputStream extends InputStream {
+
+    private static final int READ_BUFFER_SIZE = 4 * 1_048_576;
+    private static final int CHUNK_SIZE = 1_048_576;
+
+    // A BGZF block has an 18 byte header and an 8 byte trailer, neither the block nor its inflated data exceed 64 KB
+    private static final int BGZF_OVERHEAD = 26;
+    private static final int MAX_BGZF_SIZE = 65536;
+
+    private static final Future<byte[]> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final InputStream in;
+    private final BlockingQueue<Future<byte[]>> queue;
+    private final ExecutorService inflaters;
+    private final Thread readerThread;
+
+    private byte[] chunk = new byte[0];
+    private int position = 0;
+    private boolean finished = false;
+
+    public ParallelGzipInputStream(InputStream compressed, int threads) throws IOException {
+        in = new BufferedInputStream(compressed, READ_BUFFER_SIZE);
+        queue = new ArrayBlockingQueue<>(Math.max(threads, 1) * 4);
+
+        Runnable reader;
+        if (isBgzf(in)) {
+            inflaters = Executors.newFixedThreadPool(Math.max(threads, 1), r -> {
+                Thread t = new Thread(r, "gzip-inflater");
+                t.setDaemon(true);
+                return t;
+            });
+            reader = this::readBlocks;
+        } else {
+            inflaters = null;
+            reader = this::readAhead;
+        }
+
+        readerThread = new Thread(reader, "gzip-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        readerThread.interrupt();
+        if (inflaters != null) {
+            inflaters.shutdownNow();
+        }
+        in.close();
+    }
+
+    private boolean fill() throws IOException {
+        while (position == chunk.length) {
+            if (finished) {
+                return false;
+            }
+            try {
+                Future<byte[]> future = queue.take();
+                if (future == END_OF_INPUT) {
+                    finished = true;
+                    return false;
+                }
+                chunk = future.get();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                finished = true;
+                if (e.getCause() instanceof IOException ex) {
+                    throw ex;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+        return true;
+    }
+
+    // Sequential inflate of single- or multi-member gzip files, but decoupled from the consumer
+    private void readAhead() {
+        try (GZIPInputStream gzip = new GZIPInputStream(in, READ_BUFFER_SIZE)) {
+            while (true) {
+                byte[] buffer = gzip.readNBytes(CHUNK_SIZE);
+                if (buffer.length == 0) {
+                    break;
+                }
+                queue.put(CompletableFuture.completedFuture(buffer));
+            }
+            queue.put(END_OF_INPUT);
+        } catch (IOException e) {
+            putFailure(e);
+        } catch (RuntimeException e) {
+            // Any failure has to reach the consumer, otherwise it waits for the end of the input forever
+            putFailure(new IOException(e));
+        } catch (InterruptedException e) {
+            // Stream was closed
+        }
+    }
+
+    // Every BGZF block is a complete gzip member of known size and can be inflated independently
+    private void readBlocks() {
+        try {
+            while (true) {
+                byte[] header = in.readNBytes(18);
+                if (header.length == 0) {
+                    break;
+                }
+                if (header.length < 18) {
+                    throw new EOFException("Truncated BGZF block header");
+                }
+                int blockSize = bgzfBlockSize(header);
+                if (blockSize < 0) {
+                    throw new IOException("Not a BGZF block");
+                }
+                if (blockSize < BGZF_OVERHEAD) {
+                    throw new IOException("Corrupt BGZF block: block size " + blockSize);
+                }
+                byte[] block = Arrays.copyOf(header, blockSize);
+                if (in.readNBytes(block, 18, blockSize - 18) != blockSize - 18) {
+                    throw new EOFException("Truncated BGZF block");
+                }
+                queue.put(inflaters.submit(() -> inflateBlock(block)));
+            }
+            queue.put(END_OF_INPUT);
+        } catch (IOException e) {
+            putFailure(e);
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // Stream was closed
+        } catch (RuntimeException e) {
+            putFailure(new IOException(e));
+        }
+    }
+
+    private void putFailure(IOException e) {
+        try {
+            queue.put(CompletableFuture.failedFuture(e));
+            queue.put(END_OF_INPUT);
+        } catch (InterruptedException ignored) {
+            // Stream was closed
+        }
+    }
+
+    private static byte[] inflateBlock(byte[] block) throws IOException {
+        int headerLength = 12 + readShort(block, 10);
+        int dataLength = block.length - headerLength - 8;
+        int expectedCrc = readInt(block, block.length - 8);
+        int size = readInt(block, block.length - 4);
+        if (size < 0 || size > MAX_BGZF_SIZE) {
+            throw new IOException("Corrupt BGZF block: inflated size " + size);
+        }
+
+        byte[] result = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, headerLength, dataLength);
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int count = inflater.inflate(result, n, size - n);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += count;
+            }
+            if (n != size) {
+                throw new IOException("Corrupt BGZF block: size mismatch");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt BGZF block", e);
+        } finally {
+            inflater.end();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(result);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Corrupt BGZF block: CRC mismatch");
+        }
+        return result;
+    }
+
+    private static boolean isBgzf(InputStream in) throws IOException {
+        in.mark(18);
+        byte[] header = in.readNBytes(18);
+        in.reset();
+        return header.length == 18 && bgzfBlockSize(header) > 0;
+    }
+
+    // BGZF blocks carry their total size in the "BC" extra subfield, see the SAM/BAM specification
+    private static int bgzfBlockSize(byte[] header) {
+        boolean gzip = (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b && header[2] == 8;
+        boolean extra = (header[3] & 0x04) != 0;
+        if (!gzip || !extra || readShort(header, 10) != 6) {
+            return -1;
+        }
+        if (header[12] != 'B' || header[13] != 'C' || readShort(header, 14) != 2) {
+            return -1;
+        }
+        return readShort(header, 16) + 1;
+    }
+
+    private static int readShort(byte[] b, int off) {
+        return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8;
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return readShort(b, off) | readShort(b, off + 2) << 16;
+    }
+}
@@ -0,0 +1,229 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Runs the steps of Main as a graph of stages, each stage declares the files it reads and writes
+// A stage depends on the stages which write its inputs and starts as soon as they are done, so independent stages run concurrently
+// Stages whose outputs were completely written by an earlier run and are newer than their inputs are skipped
+public class Pipeline {
+
+    interface Action {
+        void run() throws Exception;
+    }
+
+    static class Stage {
+        private final String name;
+        private final Action action;
+        private final List<String> inputs = new ArrayList<>();
+        private final List<String> outputs = new ArrayList<>();
+        private final List<Stage> dependencies = new ArrayList<>();
+        private String recordCounter = null;
+        private boolean force = false;
+        private CompletableFuture<Void> future;
+
+        private Stage(String name, Action action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        // Files read by the stage, either written by an earlier stage or provided by the user
+        Stage inputs(String... files) {
+            inputs.addAll(List.of(files));
+            return this;
+        }
+
+        // Files written by the stage, a stage without outputs always runs
+        Stage outputs(String... files) {
+            outputs.addAll(List.of(files));
+            return this;
+        }
+
+        // Counter of Metrics which counts the records processed by this stage
+        Stage records(String counter) {
+            recordCounter = counter;
+            return this;
+        }
+
+        // Run the stage even if its outputs are up to date
+        Stage force(boolean force) {
+            this.force = force;
+            return this;
+        }
+    }
+
+    private final Path stateFile;
+    private final Properties state = new Properties();
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final Map<String, Stage> producers = new HashMap<>();
+
+    public Pipeline() throws IOException {
+        this("pipeline.state");
+    }
+
+    // Sizes and modification times of all outputs are logged to "stateFile" after each completed stage,
+    // so outputs of an interrupted stage are never mistaken for complete ones
+    public Pipeline(String stateFile) throws IOException {
+        this.stateFile = Path.of(stateFile);
+        if (Files.exists(this.stateFile)) {
+            try (Reader reader = Files.newBufferedReader(this.stateFile)) {
+                state.load(reader);
+            }
+        }
+    }
+
+    // Stages have to be added after the stages which write their inputs
+    Stage stage(String name, Action action) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate stage '" + name + "'");
+        }
+        Stage stage = new Stage(name, action);
+        stages.put(name, stage);
+        return stage;
+    }
+
+    // Starts all stages and waits until every stage has either finished, failed or cannot run because a dependency failed
+    public void run() throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (Stage stage : stages.values()) {
+                for (String input : stage.inputs) {
+                    Stage producer = producers.get(input);
+                    if (producer != null && !stage.dependencies.contains(producer)) {
+                        stage.dependencies.add(producer);
+                    }
+                }
+                for (String output : stage.outputs) {
+                    if (producers.putIfAbsent(output, stage) != null) {
+                        throw new IllegalArgumentException("'" + output + "' is written by more than one stage");
+                    }
+                }
+
+                CompletableFuture<?>[] dependencies = stage.dependencies.stream().map(dependency -> dependency.future).toArray(CompletableFuture[]::new);
+                stage.future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                    try {
+                        runStage(stage);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+
+            // Independent stages keep running if one stage fails, e.g. a failed dblp parse must not abort a harvest
+            try {
+                CompletableFuture.allOf(stages.values().stream().map(stage -> stage.future).toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                // Reported below in the order of the stages
+            }
+            for (Stage stage : stages.values()) {
+                if (stage.future.isCompletedExceptionally()) {
+                    try {
+                        stage.future.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IOException ex) {
+                            throw ex;
+                        } else if (cause instanceof InterruptedException ex) {
+                            throw ex;
+                        }
+                        throw new IllegalStateException("Stage '" + stage.name + "' failed", cause);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runStage(Stage stage) throws Exception {
+        if (!stage.force && isUpToDate(stage)) {
+            System.out.printf("*** [Skipping stage '%s', outputs are up to date] ***%n", stage.name);
+            Metrics.counter("pipeline.skipped").increment();
+            return;
+        }
+
+        Thread.currentThread().setName("stage-" + stage.name);
+        System.out.printf("*** [Starting stage '%s'] ***%n", stage.name);
+        forget(stage);
+        Metrics.Stage metrics = Metrics.stage(stage.name, stage.recordCounter);
+        try {
+            stage.action.run();
+        } finally {
+            metrics.close();
+        }
+        remember(stage);
+        System.out.printf("*** [Finished stage '%s'] ***%n", stage.name);
+    }
+
+    private boolean isUpToDate(Stage stage) throws IOException {
+        if (stage.outputs.isEmpty()) {
+            return false;
+        }
+
+        long oldestOutput = Long.MAX_VALUE;
+        for (String output : stage.outputs) {
+            Path path = Path.of(output);
+            if (!Files.exists(path)) {
+                return false;
+            }
+            String fingerprint = fingerprint(path);
+            synchronized (state) {
+                if (!fingerprint.equals(state.getProperty(stage.name + ":" + output))) {
+                    // Written by an interrupted run or changed outside of the pipeline
+                    return false;
+                }
+            }
+            oldestOutput = Math.min(oldestOutput, Files.getLastModifiedTime(path).toMillis());
+        }
+
+        for (String input : stage.inputs) {
+            Path path = Path.of(input);
+            // A missing input is reported by the stage itself
+            if (!Files.exists(path) || Files.getLastModifiedTime(path).toMillis() > oldestOutput) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String fingerprint(Path path) throws IOException {
+        return Files.size(path) + " " + Files.getLastModifiedTime(path).toMillis();
+    }
+
+    private void forget(Stage stage) throws IOException {
+        synchronized (state) {
+            for (String output : stage.outputs) {
+                state.remove(stage.name + ":" + output);
+            }
+            store();
+        }
+    }
+
+    private void remember(Stage stage) throws IOException {
+        synchronized (state) {
+            for (String output : stage.outputs) {
+                Path path = Path.of(output);
+                if (Files.exists(path)) {
+                    state.setProperty(stage.name + ":" + output, fingerprint(path));
+                }
+            }
+            store();
+        }
+    }
+
+    // Written to a temporary file first, so a crash cannot leave a truncated state file behind
+    private void store() throws IOException {
+        Path tempFile = Path.of(stateFile + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile)) {
+            state.store(writer, "Outputs of completed pipeline stages: size and modification time");
+        }
+        Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Token bucket shared by all requests to the Zenodo API
+// The bucket is refilled from the "x-ratelimit-*" headers of every response, so concurrent requests use the whole budget without exceeding it
+// Waiting requests are completed by a shared timer instead of blocking a thread each
+public class RateLimiter {
+
+    // Wait time if no reset time is known yet, e.g. while the very first request is still running
+    private static final long DEFAULT_WAIT_MILLIS = 1000;
+
+    // Below this share of the limit the remaining requests are spread evenly until the reset time
+    private static final double SLOW_DOWN_SHARE = 0.1;
+
+    public record Metrics(long requests, long delayedRequests, long totalWaitMillis, long maxWaitMillis, long throttledResponses) {
+    }
+
+    private record Waiter(CompletableFuture<Void> future, long sinceMillis) {
+    }
+
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+
+    private int limit = 1;
+    private int remaining = 1;
+    private long resetEpochSecond = 0;
+    private int inFlight = 0;
+
+    // Earliest time of the next request while slowing down, and of the next scheduled drain
+    private long nextSlotMillis = 0;
+    private long scheduledMillis = 0;
+
+    private long requests = 0;
+    private long delayedRequests = 0;
+    private long totalWaitMillis = 0;
+    private long maxWaitMillis = 0;
+    private long throttledResponses = 0;
+
+    // Completes as soon as the rate limit allows another request
+    public CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (this) {
+            waiters.add(new Waiter(future, System.currentTimeMillis()));
+        }
+        drain();
+        return future;
+    }
+
+    // Called for every response, including 429 responses
+    public void update(int limit, int remaining, long resetEpochSecond, boolean throttled) {
+        synchronized (this) {
+            inFlight--;
+            this.limit = limit;
+            if (throttled) {
+                throttledResponses++;
+            }
+
+            if (resetEpochSecond * 1000 > System.currentTimeMillis()) {
+                // Requests which are still in flight have already taken a token, but are not yet counted by the server
+                int estimate = Math.max(remaining - inFlight, 0);
+                if (resetEpochSecond != this.resetEpochSecond) {
+                    this.resetEpochSecond = resetEpochSecond;
+                    this.remaining = estimate;
+                    nextSlotMillis = 0;
+                } else {
+                    this.remaining = Math.min(this.remaining, estimate);
+                }
+            }
+            // Otherwise this is a late response from a rate limit window which has already ended
+        }
+        drain();
+    }
+
+    // Called instead of update() if a request failed without a response
+    public void release() {
+        synchronized (this) {
+            inFlight--;
+            remaining++;
+        }
+        drain();
+    }
+
+    public synchronized Metrics metrics() {
+        return new Metrics(requests, delayedRequests, totalWaitMillis, maxWaitMillis, throttledResponses);
+    }
+
+    // Hands out tokens to waiting requests and schedules the next attempt if some have to wait
+    private void drain() {
+        List<CompletableFuture<Void>> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (resetEpochSecond != 0 && now >= resetEpochSecond * 1000) {
+                // A new rate limit window has started
+                remaining = limit;
+                resetEpochSecond = 0;
+                nextSlotMillis = 0;
+            }
+
+            long delay = 0;
+            while (!waiters.isEmpty()) {
+                if (remaining <= 0) {
+                    delay = resetEpochSecond == 0 ? DEFAULT_WAIT_MILLIS : Math.max(resetEpochSecond * 1000 - now, 1);
+                    break;
+                }
+                if (nextSlotMillis > now) {
+                    delay = nextSlotMillis - now;
+                    break;
+                }
+
+                Waiter waiter = waiters.poll();
+                remaining--;
+                inFlight++;
+                ready.add(waiter.future());
+
+                long waited = now - waiter.sinceMillis();
+                requests++;
+                if (waited > 0) {
+                    delayedRequests++;
+                    totalWaitMillis += waited;
+                    maxWaitMillis = Math.max(maxWaitMillis, waited);
+                }
+
+                // Slow down before the limit is reached instead of running into 429 responses
+                if (resetEpochSecond != 0 && remaining < limit * SLOW_DOWN_SHARE) {
+                    nextSlotMillis = now + (resetEpochSecond * 1000 - now) / (remaining + 1);
+                }
+            }
+
+            if (!waiters.isEmpty() && (scheduledMillis <= now || now + delay < scheduledMillis)) {
+                scheduledMillis = now + delay;
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(this::drain);
+            }
+        }
+
+        // Dependent stages of the futures must not run while holding the lock
+        for (CompletableFuture<Void> future : ready) {
+            future.complete(null);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Hands the results of worker tasks from a producer thread to a consumer in the order they were submitted
+// Bounded, so the producer cannot run arbitrarily far ahead of the workers
+// If the consumer stops early, e.g. because a task failed, the producer is stopped instead of blocking on a full queue forever
+public class ResultQueue<T> {
+
+    private final BlockingQueue<Future<T>> queue;
+    private final Future<T> endOfInput = CompletableFuture.completedFuture(null);
+    private volatile boolean closed = false;
+
+    public ResultQueue(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    // Throws CancellationException once the consumer has stopped, so the producer does not read its input any further
+    public void put(Future<T> result) {
+        if (!offer(result)) {
+            result.cancel(true);
+            throw new CancellationException("Consumer has stopped");
+        }
+    }
+
+    // Called by the producer when it is done, also after a failure
+    public void end() {
+        offer(endOfInput);
+    }
+
+    // Returns null after the last result
+    public Future<T> take() throws InterruptedException {
+        Future<T> result = queue.take();
+        return result == endOfInput ? null : result;
+    }
+
+    // Called by the consumer when it stops, results which were not taken are cancelled
+    public void close() {
+        closed = true;
+        Future<T> result;
+        while ((result = queue.poll()) != null) {
+            result.cancel(true);
+        }
+    }
+
+    private boolean offer(Future<T> result) {
+        boolean interrupted = false;
+        try {
+            while (!closed) {
+                try {
+                    if (queue.offer(result, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    // The consumer takes every result until the end, so results are handed over even if interrupted
+                    interrupted = true;
+                }
+            }
+            return false;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
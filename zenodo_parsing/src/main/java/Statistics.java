@@ -1,4 +1,3 @@
-import com.google.gson.*;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
@@ -6,112 +5,188 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Statistics {
 
-    public Statistics(String dblpFile, String zenodoFile, String statisticsFile) throws IOException {
+    // Number of Zenodo records which are matched by a single task
+    private static final int CHUNK_SIZE = 2048;
 
-        Map<String, DblpInput.OrcidInfo> orcidInfoMap = new HashMap<>();
-        Map<String, Set<String>> verifiedMatches = new HashMap<>();
-        Map<String, Set<String>> unverifiedMatches = new HashMap<>();
+    private static final LongAdder recordCounter = Metrics.counter("statistics.records");
+    private static final LongAdder skippedCounter = Metrics.counter("statistics.skipped");
+    private static final LongAdder lookupCounter = Metrics.counter("statistics.lookups");
+    private static final Metrics.Histogram chunkTimer = Metrics.timer("statistics.chunk");
 
-        // Read ORCIDs extracted from DBLP into memory
-        try (JsonReader jsonReader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(dblpFile), StandardCharsets.UTF_8)))) {
-            jsonReader.beginObject();
-            while (jsonReader.hasNext()) {
-                String orcid = jsonReader.nextName();
-                JsonObject obj = JsonParser.parseReader(jsonReader).getAsJsonObject();
-                String key = obj.getAsJsonPrimitive("key").getAsString();
-                boolean verified = obj.getAsJsonPrimitive("verified").getAsBoolean();
-                orcidInfoMap.put(orcid, new DblpInput.OrcidInfo(key, verified));
-            }
-            jsonReader.endObject();
+    static class Options {
+        private int threads = 0;
+
+        // 0 matches records on the reading thread, otherwise chunks of records are matched on a fork-join pool
+        Options threads(int threads) {
+            this.threads = threads;
+            return this;
         }
+    }
 
-        // Stream Zenodo data from dump
-        try (
-                JsonReader jsonReader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(zenodoFile), StandardCharsets.UTF_8)));
-                JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(statisticsFile), StandardCharsets.UTF_8)))
-        ) {
-            jsonWriter.setIndent("  ");
-            jsonWriter.setHtmlSafe(false);
+    // A Zenodo record with the number of distinct ORCIDs which are known to dblp
+    private record Match(String doi, String created, int verified, int unverified) {
+    }
 
-            jsonReader.beginArray();
-            jsonWriter.beginArray();
+    // Joins records while ZenodoRequest harvests them, see ZenodoRequest.Options.listener
+    // Only the small matches are kept, they are sorted like the dump and written once the harvest is done
+    static class Streaming implements ZenodoRequest.Listener {
 
-            while (jsonReader.hasNext()) {
-                JsonObject entry = JsonParser.parseReader(jsonReader).getAsJsonObject();
+        // Running totals are printed whenever this many more records were matched
+        private static final int PROGRESS_INTERVAL = 100_000;
+
+        // A match with the sort key of ZenodoDumpWriter
+        private record Pending(long key, int id, Match match) {
+        }
+
+        private static final Comparator<Pending> ORDER = Comparator.comparingLong(Pending::key).thenComparingInt(Pending::id);
+
+        private final Statistics statistics;
+        private final String statisticsFile;
+        private final ThreadLocal<OrcidScratch> scratch = ThreadLocal.withInitial(OrcidScratch::new);
+        private final List<Pending> pending = new ArrayList<>();
 
-                if (!entry.has("doi") || !entry.has("metadata")) {
-                    // Currently, 2 record ids without "doi" exist: 14784 and 16192
-                    continue;
+        private long verifiedDatasets = 0;
+        private long unverifiedDatasets = 0;
+
+        Streaming(String dblpFile, String statisticsFile) throws IOException {
+            statistics = new Statistics(OrcidLookup.open(dblpFile));
+            this.statisticsFile = statisticsFile;
+        }
+
+        @Override
+        public void accept(ZenodoRecord record) {
+            Match match = statistics.match(record, scratch.get());
+            if (match == null) {
+                return;
+            }
+            Pending entry = new Pending(ZenodoDumpWriter.sortKey(match.created()), record.id(), match);
+            synchronized (this) {
+                pending.add(entry);
+                if (match.verified() > 0) {
+                    verifiedDatasets++;
+                }
+                if (match.unverified() > 0) {
+                    unverifiedDatasets++;
+                }
+                if (pending.size() % PROGRESS_INTERVAL == 0) {
+                    System.out.printf(Locale.ROOT, "[Statistics: %d datasets, %d with verified ORCIDs, %d with unverified ORCIDs]%n", pending.size(), verifiedDatasets, unverifiedDatasets);
                 }
+            }
+        }
 
-                String doi = entry.getAsJsonPrimitive("doi").getAsString();
-                String created = entry.getAsJsonPrimitive("created").getAsString();
-                JsonObject metadata = entry.getAsJsonObject("metadata");
+        @Override
+        public synchronized void finish() throws IOException {
+            pending.sort(ORDER);
+            try (JsonRecordWriter recordWriter = new JsonRecordWriter(statisticsFile)) {
+                for (Pending entry : pending) {
+                    statistics.output(entry.match(), recordWriter);
+                }
+            }
+            pending.clear();
+            statistics.printTotals();
+        }
+    }
 
-                // ORCIDs may appear in two positions
-                for (String type : List.of("creators", "contributors")) {
-                    JsonArray arr = metadata.getAsJsonArray(type);
-                    if (arr == null) {
-                        continue;
-                    }
-                    for (int i = 0; i < arr.size(); i++) {
-                        JsonObject obj = arr.get(i).getAsJsonObject();
+    // Distinct ORCIDs of a single record, reused for all records matched by one thread
+    private static final class OrcidScratch {
+        private long[] verified = new long[16];
+        private long[] unverified = new long[16];
+        private int verifiedSize;
+        private int unverifiedSize;
 
-                        // Person has no ORCID in Zenodo
-                        if (!obj.has("orcid")) {
-                            continue;
-                        }
+        void clear() {
+            verifiedSize = 0;
+            unverifiedSize = 0;
+        }
 
-                        String orcid = obj.getAsJsonPrimitive("orcid").getAsString();
-
-                        // ORCID is known to DBLP
-                        if (orcidInfoMap.containsKey(orcid)) {
-                            DblpInput.OrcidInfo orcidInfo = orcidInfoMap.get(orcid);
-                            Set<String> set;
-                            if (orcidInfo.verified()) {
-                                set = verifiedMatches.computeIfAbsent(doi, x -> new HashSet<>());
-                            } else {
-                                set = unverifiedMatches.computeIfAbsent(doi, x -> new HashSet<>());
-                            }
-                            set.add(orcid);
-                        }
-                    }
+        void add(long orcid, boolean isVerified) {
+            if (isVerified) {
+                if (verifiedSize == verified.length) {
+                    verified = Arrays.copyOf(verified, verifiedSize * 2);
                 }
+                verified[verifiedSize++] = orcid;
+            } else {
+                if (unverifiedSize == unverified.length) {
+                    unverified = Arrays.copyOf(unverified, unverifiedSize * 2);
+                }
+                unverified[unverifiedSize++] = orcid;
+            }
+        }
 
-                // Output statistics
-                jsonWriter.beginObject();
-                jsonWriter.name("doi");
-                jsonWriter.value(doi);
+        int verifiedCount() {
+            return distinct(verified, verifiedSize);
+        }
 
-                jsonWriter.name("timestamp");
-                jsonWriter.value(Instant.parse(created).getEpochSecond());
+        int unverifiedCount() {
+            return distinct(unverified, unverifiedSize);
+        }
 
-                jsonWriter.name("created");
-                jsonWriter.value(created);
+        private static int distinct(long[] orcids, int size) {
+            Arrays.sort(orcids, 0, size);
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || orcids[i] != orcids[i - 1]) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private final OrcidLookup orcidInfoMap;
+
+    // DOIs of Zenodo records are unique, so totals can be summed up per record
+    private long totalVerifiedDatasetMatches = 0;
+    private long totalVerifiedAuthorMatches = 0;
+    private long totalUnverifiedDatasetMatches = 0;
+    private long totalUnverifiedAuthorMatches = 0;
+
+    public Statistics(String dblpFile, String zenodoFile, String statisticsFile) throws IOException, InterruptedException {
+        this(dblpFile, zenodoFile, statisticsFile, new Options());
+    }
+
+    private Statistics(OrcidLookup orcidInfoMap) {
+        this.orcidInfoMap = orcidInfoMap;
+    }
 
-                jsonWriter.name("verified");
-                jsonWriter.value(verifiedMatches.getOrDefault(doi, Set.of()).size());
+    public Statistics(String dblpFile, String zenodoFile, String statisticsFile, Options options) throws IOException, InterruptedException {
 
-                jsonWriter.name("unverified");
-                jsonWriter.value(unverifiedMatches.getOrDefault(doi, Set.of()).size());
+        long start = System.nanoTime();
+        orcidInfoMap = OrcidLookup.open(dblpFile);
+        Metrics.timer("statistics.load").recordSince(start);
 
-                jsonWriter.endObject();
+        // Both files may be JSON or newline-delimited JSON, see JsonFiles
+        try (JsonRecordWriter recordWriter = new JsonRecordWriter(statisticsFile)) {
+            if (options.threads > 0) {
+                matchParallel(zenodoFile, options.threads, recordWriter);
+            } else {
+                // Stream Zenodo data from dump
+                try (JsonRecordReader recordReader = new JsonRecordReader(zenodoFile)) {
+                    OrcidScratch scratch = new OrcidScratch();
+                    while (recordReader.hasNext()) {
+                        Match match = match(ZenodoRecord.read(recordReader.next(), false), scratch);
+                        if (match != null) {
+                            output(match, recordWriter);
+                        }
+                    }
+                }
             }
-            jsonWriter.endArray();
-            jsonReader.endArray();
         }
 
-        long totalVerified = orcidInfoMap.entrySet().stream().filter(x -> x.getValue().verified()).count();
-        long totalUnverified = orcidInfoMap.entrySet().stream().filter(x -> !x.getValue().verified()).count();
+        printTotals();
+    }
 
-        long totalVerifiedDatasetMatches = verifiedMatches.entrySet().size();
-        long totalVerifiedAuthorMatches = verifiedMatches.values().stream().map(Set::size).reduce(0, Integer::sum);
+    private void printTotals() {
+        Metrics.gauge("statistics.verifiedDatasets", totalVerifiedDatasetMatches);
+        Metrics.gauge("statistics.unverifiedDatasets", totalUnverifiedDatasetMatches);
 
-        long totalUnverifiedDatasetMatches = unverifiedMatches.entrySet().size();
-        long totalUnverifiedAuthorMatches = unverifiedMatches.values().stream().map(Set::size).reduce(0, Integer::sum);
+        long totalVerified = orcidInfoMap.verifiedCount();
+        long totalUnverified = orcidInfoMap.size() - orcidInfoMap.verifiedCount();
 
         System.out.println("Total ORCIDs in dblp with human verification             : " + totalVerified);
         System.out.println("Total ORCIDs in dblp extracted from publication metadata : " + totalUnverified);
@@ -122,4 +197,126 @@ public class Statistics {
         System.out.println("Datasets with at least one known, but unverified ORCID   : " + totalUnverifiedDatasetMatches);
         System.out.println("Dataset authors with known, but unverified ORCIDs        : " + totalUnverifiedAuthorMatches);
     }
+
+    // Only reads the lookup, so records can be matched on several threads
+    private Match match(ZenodoRecord record, OrcidScratch scratch) {
+        recordCounter.increment();
+        if (record.doi() == null || record.creatorOrcids() == null) {
+            // Currently, 2 record ids without "doi" exist: 14784 and 16192
+            skippedCounter.increment();
+            return null;
+        }
+
+        scratch.clear();
+
+        // ORCIDs may appear in two positions
+        for (List<String> orcids : List.of(record.creatorOrcids(), record.contributorOrcids())) {
+            lookupCounter.add(orcids.size());
+            for (String orcid : orcids) {
+                // ORCID is known to DBLP
+                long encoded = OrcidCodec.parse(orcid);
+                int orcidInfo = orcidInfoMap.find(encoded);
+                if (orcidInfo != OrcidLookup.MISSING) {
+                    scratch.add(encoded, OrcidLookup.isVerified(orcidInfo));
+                }
+            }
+        }
+        return new Match(record.doi(), record.created(), scratch.verifiedCount(), scratch.unverifiedCount());
+    }
+
+    // Records have to be output in the order of the dump
+    private void output(Match match, JsonRecordWriter recordWriter) throws IOException {
+        if (match.verified() > 0) {
+            totalVerifiedDatasetMatches++;
+            totalVerifiedAuthorMatches += match.verified();
+        }
+        if (match.unverified() > 0) {
+            totalUnverifiedDatasetMatches++;
+            totalUnverifiedAuthorMatches += match.unverified();
+        }
+
+        // Output statistics
+        JsonWriter jsonWriter = recordWriter.beginRecord();
+        jsonWriter.beginObject();
+        jsonWriter.name("doi");
+        jsonWriter.value(match.doi());
+
+        jsonWriter.name("timestamp");
+        jsonWriter.value(Instant.parse(match.created()).getEpochSecond());
+
+        jsonWriter.name("created");
+        jsonWriter.value(match.created());
+
+        jsonWriter.name("verified");
+        jsonWriter.value(match.verified());
+
+        jsonWriter.name("unverified");
+        jsonWriter.value(match.unverified());
+
+        jsonWriter.endObject();
+        recordWriter.endRecord();
+    }
+
+    private void matchParallel(String zenodoFile, int threads, JsonRecordWriter recordWriter) throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        ResultQueue<List<Match>> queue = new ResultQueue<>(threads * 4);
+
+        FutureTask<Void> producer = new FutureTask<>(() -> {
+            try (InputStream in = JsonFiles.newInputStream(zenodoFile)) {
+                // Chunks contain whole records, so they can be parsed independently
+                JsonArrayChunker chunker = new JsonArrayChunker(in, JsonFiles.isNdjson(zenodoFile));
+                byte[] chunk;
+                while ((chunk = chunker.next(CHUNK_SIZE)) != null) {
+                    byte[] records = chunk;
+                    queue.put(pool.submit(() -> matchChunk(records)));
+                }
+            } finally {
+                queue.end();
+            }
+            return null;
+        });
+        Thread readerThread = new Thread(producer, "zenodo-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        try {
+            // Chunks are output in the order of the dump, which is sorted by "created"
+            Future<List<Match>> future;
+            while ((future = queue.take()) != null) {
+                for (Match match : future.get()) {
+                    output(match, recordWriter);
+                }
+            }
+            producer.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ex) {
+                throw ex;
+            }
+            throw new IllegalStateException("Matching Zenodo records failed", e.getCause());
+        } finally {
+            // Stops the reader if a chunk failed, it would otherwise wait for the queue forever
+            queue.close();
+            producer.cancel(true);
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Match> matchChunk(byte[] chunk) throws IOException {
+        long start = System.nanoTime();
+        List<Match> matches = new ArrayList<>(CHUNK_SIZE);
+        OrcidScratch scratch = new OrcidScratch();
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(chunk), StandardCharsets.UTF_8))) {
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                Match match = match(ZenodoRecord.read(jsonReader, false), scratch);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            jsonReader.endArray();
+        }
+        chunkTimer.recordSince(start);
+        return matches;
+    }
 }
@@ -0,0 +1,170 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Updates the output of Statistics with an OrcidDelta instead of joining the Zenodo dump against a new dblp release
+// Only ORCIDs whose status changed are kept in memory, the ORCID index of the new release is not needed
+public class StatisticsDelta {
+
+    private static final int NONE = 0;
+    private static final int UNVERIFIED = 1;
+    private static final int VERIFIED = 2;
+
+    public StatisticsDelta(String deltaFile, String zenodoFile, String previousStatisticsFile, String statisticsFile) throws IOException {
+
+        // Maps ORCIDs to (previous status << 2 | new status), ORCIDs which only changed their dblp key are irrelevant here
+        LongIntHashMap transitions = readTransitions(deltaFile);
+
+        // ORCIDs with a changed status in the current record, DOIs of Zenodo records are unique
+        Set<Long> touchedMatches = new HashSet<>();
+
+        long totalVerifiedDatasetMatches = 0;
+        long totalVerifiedAuthorMatches = 0;
+        long totalUnverifiedDatasetMatches = 0;
+        long totalUnverifiedAuthorMatches = 0;
+
+        // The previous statistics contain exactly one entry per usable Zenodo record, in the same order
+        try (
+                JsonRecordReader zenodoReader = new JsonRecordReader(zenodoFile);
+                JsonRecordReader statisticsReader = new JsonRecordReader(previousStatisticsFile);
+                JsonRecordWriter recordWriter = new JsonRecordWriter(statisticsFile)
+        ) {
+            while (zenodoReader.hasNext()) {
+                JsonObject entry = JsonParser.parseReader(zenodoReader.next()).getAsJsonObject();
+
+                if (!entry.has("doi") || !entry.has("metadata")) {
+                    continue;
+                }
+
+                String doi = entry.getAsJsonPrimitive("doi").getAsString();
+                if (!statisticsReader.hasNext()) {
+                    throw new IllegalStateException("Previous statistics contain fewer records than the Zenodo dump");
+                }
+                JsonObject previous = JsonParser.parseReader(statisticsReader.next()).getAsJsonObject();
+                if (!previous.getAsJsonPrimitive("doi").getAsString().equals(doi)) {
+                    throw new IllegalStateException("Previous statistics do not match Zenodo dump at DOI " + doi);
+                }
+
+                touchedMatches.clear();
+                JsonObject metadata = entry.getAsJsonObject("metadata");
+                for (String type : List.of("creators", "contributors")) {
+                    JsonArray arr = metadata.getAsJsonArray(type);
+                    if (arr == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < arr.size(); i++) {
+                        JsonObject obj = arr.get(i).getAsJsonObject();
+                        if (!obj.has("orcid")) {
+                            continue;
+                        }
+                        long orcid = OrcidCodec.parse(obj.getAsJsonPrimitive("orcid").getAsString());
+                        if (orcid != OrcidCodec.INVALID && transitions.containsKey(orcid)) {
+                            touchedMatches.add(orcid);
+                        }
+                    }
+                }
+
+                // Counts are per DOI, so every changed ORCID of this record shifts them once
+                long verified = previous.getAsJsonPrimitive("verified").getAsLong();
+                long unverified = previous.getAsJsonPrimitive("unverified").getAsLong();
+                for (long orcid : touchedMatches) {
+                    int transition = transitions.get(orcid);
+                    verified += count(transition & 3, VERIFIED) - count(transition >>> 2, VERIFIED);
+                    unverified += count(transition & 3, UNVERIFIED) - count(transition >>> 2, UNVERIFIED);
+                }
+
+                // DOIs of Zenodo records are unique, so totals can be summed up per record
+                if (verified > 0) {
+                    totalVerifiedDatasetMatches++;
+                    totalVerifiedAuthorMatches += verified;
+                }
+                if (unverified > 0) {
+                    totalUnverifiedDatasetMatches++;
+                    totalUnverifiedAuthorMatches += unverified;
+                }
+
+                JsonWriter jsonWriter = recordWriter.beginRecord();
+                jsonWriter.beginObject();
+                jsonWriter.name("doi");
+                jsonWriter.value(doi);
+
+                jsonWriter.name("timestamp");
+                jsonWriter.value(previous.getAsJsonPrimitive("timestamp").getAsLong());
+
+                jsonWriter.name("created");
+                jsonWriter.value(previous.getAsJsonPrimitive("created").getAsString());
+
+                jsonWriter.name("verified");
+                jsonWriter.value(verified);
+
+                jsonWriter.name("unverified");
+                jsonWriter.value(unverified);
+
+                jsonWriter.endObject();
+                recordWriter.endRecord();
+            }
+
+            if (statisticsReader.hasNext()) {
+                throw new IllegalStateException("Previous statistics contain more records than the Zenodo dump");
+            }
+        }
+
+        System.out.println("ORCIDs with changed verification status                  : " + transitions.size());
+
+        System.out.println("Datasets with at least one author with verified ORCID    : " + totalVerifiedDatasetMatches);
+        System.out.println("Total number of authors with verified ORCIDs in datasets : " + totalVerifiedAuthorMatches);
+
+        System.out.println("Datasets with at least one known, but unverified ORCID   : " + totalUnverifiedDatasetMatches);
+        System.out.println("Dataset authors with known, but unverified ORCIDs        : " + totalUnverifiedAuthorMatches);
+    }
+
+    private static int count(int status, int expected) {
+        return status == expected ? 1 : 0;
+    }
+
+    private static LongIntHashMap readTransitions(String deltaFile) throws IOException {
+        LongIntHashMap transitions = new LongIntHashMap(1024);
+
+        try (JsonReader jsonReader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(deltaFile), StandardCharsets.UTF_8)))) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String section = jsonReader.nextName();
+                jsonReader.beginObject();
+                while (jsonReader.hasNext()) {
+                    String name = jsonReader.nextName();
+                    long orcid = OrcidCodec.encode(name);
+                    JsonObject obj = JsonParser.parseReader(jsonReader).getAsJsonObject();
+                    if (orcid == OrcidCodec.INVALID) {
+                        System.err.printf("Skipping invalid ORCID '%s' in %s%n", name, deltaFile);
+                        continue;
+                    }
+                    int status = status(obj.getAsJsonPrimitive("verified").getAsBoolean());
+
+                    int transition = switch (section) {
+                        case "added" -> NONE << 2 | status;
+                        case "removed" -> status << 2 | NONE;
+                        case "changed" -> status(obj.getAsJsonPrimitive("previousVerified").getAsBoolean()) << 2 | status;
+                        default -> throw new IllegalStateException("Unknown delta section: " + section);
+                    };
+
+                    if (transition >>> 2 != (transition & 3)) {
+                        transitions.putIfAbsent(orcid, transition);
+                    }
+                }
+                jsonReader.endObject();
+            }
+            jsonReader.endObject();
+        }
+        return transitions;
+    }
+
+    private static int status(boolean verified) {
+        return verified ? VERIFIED : UNVERIFIED;
+    }
+}
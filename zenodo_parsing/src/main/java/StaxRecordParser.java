@@ -0,0 +1,135 @@
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class StaxRecordParser {
+
+    private static final LongAdder recordCounter = Metrics.counter("dblp.records");
+    private static final LongAdder skippedCounter = Metrics.counter("dblp.skipped");
+
+    private final Set<String> queryTags;
+    private final Consumer<DblpRecord> recordConsumer;
+    private final boolean orcidsOnly;
+    private final XMLInputFactory factory;
+
+    public StaxRecordParser(Set<String> tags, Consumer<DblpRecord> consumer) {
+        this(tags, consumer, true, false);
+    }
+
+    // Without "dtd", the input has to be read through DblpEntityReader which resolves character entities such as "&uuml;"
+    // With "orcidsOnly", records other than "www" only contain the authors and editors with an "orcid" attribute
+    public StaxRecordParser(Set<String> tags, Consumer<DblpRecord> consumer, boolean dtd, boolean orcidsOnly) {
+        queryTags = tags;
+        recordConsumer = consumer;
+        this.orcidsOnly = orcidsOnly;
+        factory = XMLInputFactory.newInstance();
+        // Otherwise dblp.dtd is needed to resolve character entities such as "&uuml;"
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, dtd);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    public void parse(InputStream is) throws XMLStreamException {
+        parse(factory.createXMLStreamReader(is));
+    }
+
+    public void parse(Reader characters) throws XMLStreamException {
+        parse(factory.createXMLStreamReader(characters));
+    }
+
+    private void parse(XMLStreamReader reader) throws XMLStreamException {
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2) {
+                        if (queryTags.contains(reader.getLocalName())) {
+                            recordCounter.increment();
+                            recordConsumer.accept(readRecord(reader));
+                            // readRecord() consumed the matching end tag
+                            depth--;
+                        } else {
+                            skippedCounter.increment();
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private DblpRecord readRecord(XMLStreamReader reader) throws XMLStreamException {
+        String tag = reader.getLocalName();
+        String key = reader.getAttributeValue(null, "key");
+
+        List<DblpRecord.Contributor> authors = new ArrayList<>(4);
+        List<DblpRecord.Contributor> editors = new ArrayList<>(0);
+        List<String> urls = new ArrayList<>(0);
+
+        // Skipped elements are only tokenized, their text is never turned into Strings
+        boolean filtered = orcidsOnly && !tag.equals("www");
+
+        // Only direct children of a record are of interest, nested markup (e.g. in titles) is skipped
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1) {
+                    switch (reader.getLocalName()) {
+                        case "author" -> {
+                            if (filtered && !hasOrcid(reader)) {
+                                depth++;
+                            } else {
+                                authors.add(readContributor(reader));
+                            }
+                        }
+                        case "editor" -> {
+                            if (filtered && !hasOrcid(reader)) {
+                                depth++;
+                            } else {
+                                editors.add(readContributor(reader));
+                            }
+                        }
+                        case "url" -> {
+                            if (filtered) {
+                                depth++;
+                            } else {
+                                urls.add(reader.getElementText());
+                            }
+                        }
+                        default -> depth++;
+                    }
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+
+        return new DblpRecord(tag, key == null ? "" : key, authors, editors, urls);
+    }
+
+    private static boolean hasOrcid(XMLStreamReader reader) {
+        return reader.getAttributeValue(null, "orcid") != null;
+    }
+
+    private static DblpRecord.Contributor readContributor(XMLStreamReader reader) throws XMLStreamException {
+        // ORCIDs as attributes are stored without "https://orcid.org/..." prefix
+        String orcid = reader.getAttributeValue(null, "orcid");
+        return new DblpRecord.Contributor(reader.getElementText(), orcid);
+    }
+}
@@ -0,0 +1,82 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Interns strings into a single UTF-8 byte array and hands out dense int ids
+// Meant for millions of short, mostly ASCII strings such as dblp keys
+public class StringPool {
+
+    private byte[] bytes;
+    private int byteCount = 0;
+
+    private int[] offsets;
+    private int[] hashes;
+    private int count = 0;
+
+    // Holds id + 1, 0 marks an empty slot
+    private int[] slots;
+
+    public StringPool(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        bytes = new byte[capacity * 16];
+        offsets = new int[capacity + 1];
+        hashes = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int intern(String s) {
+        byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+        int hash = s.hashCode();
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && Arrays.equals(bytes, offsets[id], offsets[id + 1], encoded, 0, encoded.length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (count == hashes.length) {
+            grow();
+            return intern(s);
+        }
+        if (byteCount + encoded.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + encoded.length));
+        }
+
+        int id = count++;
+        System.arraycopy(encoded, 0, bytes, byteCount, encoded.length);
+        byteCount += encoded.length;
+        offsets[id + 1] = byteCount;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        return id;
+    }
+
+    public String get(int id) {
+        return new String(bytes, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    private void grow() {
+        int capacity = hashes.length * 2;
+        offsets = Arrays.copyOf(offsets, capacity + 1);
+        hashes = Arrays.copyOf(hashes, capacity);
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
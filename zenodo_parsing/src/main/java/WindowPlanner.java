@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Splits a time range into timeframes with at most 10000 Zenodo records each
+// The record density of previous probes is used to size the next timeframe just below the limit
+public class WindowPlanner {
+
+    public interface Probe {
+        // Returns the total number of records created in [start, end]
+        long count(Instant start, Instant end) throws IOException, InterruptedException;
+    }
+
+    public record Window(Instant start, Instant end, long total) {
+    }
+
+    // Zenodo only allows up to 10000 results in a single query
+    private static final long MAX_RECORDS = 10_000;
+
+    // Aim below the limit, the density of the next timeframe is only an estimate
+    private static final long TARGET_RECORDS = 9_000;
+
+    // Approximately 0.94 years, upper bound for sparse or empty periods
+    private static final long MAX_HOURS = 8192;
+
+    // Consecutive timeframes overlap by one hour, shorter timeframes would not advance
+    private static final long MIN_HOURS = 2;
+
+    private final Probe probe;
+    private final Map<String, Long> probeCache = new ConcurrentHashMap<>();
+    private final AtomicInteger probeCount = new AtomicInteger();
+
+    public WindowPlanner(Probe probe) {
+        this.probe = probe;
+    }
+
+    public int probeCount() {
+        return probeCount.get();
+    }
+
+    // Returns non-empty timeframes covering [start, end], consecutive timeframes overlap by one hour
+    public List<Window> plan(Instant start, Instant end) throws IOException, InterruptedException {
+        return plan(start, end, true);
+    }
+
+    // Like plan, but the last timeframe is not cut off at "end", it is the first one whose successor would start after "end"
+    public List<Window> planPast(Instant start, Instant end) throws IOException, InterruptedException {
+        return plan(start, end, false);
+    }
+
+    private List<Window> plan(Instant start, Instant end, boolean cutOff) throws IOException, InterruptedException {
+        List<Window> windows = new ArrayList<>();
+
+        long hours = MAX_HOURS;
+        while (true) {
+            Instant windowEnd = start.plus(hours, ChronoUnit.HOURS);
+            boolean lastWindow = cutOff ? !windowEnd.isBefore(end) : windowEnd.minus(1, ChronoUnit.HOURS).isAfter(end);
+            if (lastWindow && cutOff) {
+                windowEnd = end;
+                hours = Math.max(ChronoUnit.HOURS.between(start, end), MIN_HOURS);
+            }
+
+            long total = count(start, windowEnd);
+
+            if (total > MAX_RECORDS && hours > MIN_HOURS) {
+                // Shrink in proportion to the observed density instead of bisecting repeatedly
+                System.out.printf("Found %d results, reducing interval%n", total);
+                hours = Math.max(Math.min(hours * TARGET_RECORDS / total, hours / 2), MIN_HOURS);
+                continue;
+            }
+            if (total > MAX_RECORDS) {
+                System.err.printf("More than %d records in %d hours, only %d can be retrieved [%s]%n", MAX_RECORDS, hours, MAX_RECORDS, start);
+            }
+
+            if (total > 0) {
+                windows.add(new Window(start, windowEnd, total));
+            }
+            if (lastWindow) {
+                return windows;
+            }
+
+            // Size the next timeframe with the density of this one
+            hours = total == 0 ? MAX_HOURS : Math.max(Math.min(hours * TARGET_RECORDS / total, MAX_HOURS), MIN_HOURS);
+
+            // Start one hour before "end" the next time to retrieve records created on a full hour
+            start = windowEnd.minus(1, ChronoUnit.HOURS);
+        }
+    }
+
+    private long count(Instant start, Instant end) throws IOException, InterruptedException {
+        String key = DateTimeFormatter.ISO_INSTANT.format(start) + "/" + DateTimeFormatter.ISO_INSTANT.format(end);
+        Long cached = probeCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        probeCount.incrementAndGet();
+        long total = probe.count(start, end);
+        probeCache.put(key, total);
+        return total;
+    }
+}
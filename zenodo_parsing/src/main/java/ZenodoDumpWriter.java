@@ -0,0 +1,203 @@
+import com.google.gson.stream.JsonReader;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Appends harvested Zenodo records to a spill file as they arrive and writes them sorted by "created" at the end
+// Memory use is bounded by the size of a sort run, independent of the number of records
+public class ZenodoDumpWriter implements Closeable {
+
+    // Number of records sorted in memory at once
+    private static final int RUN_SIZE = 50_000;
+
+    private final String jsonFile;
+    private final Path spillFile;
+    private final BufferedWriter spill;
+    private final FileChannel spillChannel;
+
+    // Record ids are small, dense integers
+    private final BitSet ids = new BitSet();
+    private int size = 0;
+
+    // A spilled record: sort key, tie breaker and the compact JSON of the record
+    private record Line(long created, int id, String json) {
+        static Line parse(String line) {
+            int first = line.indexOf('\t');
+            int second = line.indexOf('\t', first + 1);
+            return new Line(Long.parseLong(line, 0, first, 10), Integer.parseInt(line, first + 1, second, 10), line.substring(second + 1));
+        }
+
+        @Override
+        public String toString() {
+            return created + "\t" + id + "\t" + json;
+        }
+    }
+
+    private static final Comparator<Line> ORDER = Comparator.comparingLong(Line::created).thenComparingInt(Line::id);
+
+    public ZenodoDumpWriter(String jsonFile) throws IOException {
+        this(jsonFile, false);
+    }
+
+    // With resume the records of an interrupted harvest are kept and new records are appended
+    public ZenodoDumpWriter(String jsonFile, boolean resume) throws IOException {
+        this.jsonFile = jsonFile;
+        spillFile = Path.of(jsonFile + ".spill");
+
+        if (resume && Files.exists(spillFile)) {
+            truncateIncompleteLine();
+            try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ids.set(Line.parse(line).id());
+                    size++;
+                }
+            }
+        }
+        FileOutputStream out = new FileOutputStream(spillFile.toFile(), resume);
+        spillChannel = out.getChannel();
+        spill = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    // The last record of an interrupted harvest might only be written partially
+    private void truncateIncompleteLine() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(spillFile.toFile(), "rw")) {
+            long length = file.length();
+            while (length > 0) {
+                file.seek(length - 1);
+                if (file.read() == '\n') {
+                    break;
+                }
+                length--;
+            }
+            file.setLength(length);
+        }
+    }
+
+    // Returns false if a record with the same id was already added
+    public synchronized boolean add(ZenodoRecord record) throws IOException {
+        // "id" is a unique value and exists in every record
+        int id = record.id();
+        if (ids.get(id)) {
+            return false;
+        }
+        ids.set(id);
+        size++;
+
+        // Records are serialized as compact JSON without line breaks, one record per line
+        spill.write(new Line(sortKey(record.created()), id, record.toJson()).toString());
+        spill.newLine();
+        return true;
+    }
+
+    // Records are sorted by this key and then by id, "created" is parsed only once and given in microseconds
+    static long sortKey(String created) {
+        Instant instant = Instant.parse(created);
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    // Hands all records which were added so far, e.g. by an interrupted harvest, to "consumer" in the slim form of ZenodoRecord
+    public synchronized void replay(Consumer<ZenodoRecord> consumer) throws IOException {
+        spill.flush();
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumer.accept(ZenodoRecord.read(new JsonReader(new StringReader(Line.parse(line).json())), false));
+            }
+        }
+    }
+
+    // Records which were added so far survive a crash after this call, also of the operating system
+    public synchronized void flush() throws IOException {
+        spill.flush();
+        spillChannel.force(false);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Sorts the spill file with an external merge sort and writes the final JSON array
+    // The spill file is kept until delete(), so a harvest interrupted before its checkpoint is deleted can still resume
+    public synchronized void finish() throws IOException {
+        spill.close();
+
+        System.out.printf("*** [Writing sorted output to file: '%s'] ***%n", jsonFile);
+
+        List<Path> runs = writeRuns();
+        List<BufferedReader> readers = new ArrayList<>();
+        try (JsonRecordWriter recordWriter = new JsonRecordWriter(jsonFile)) {
+            // Merge all sorted runs, the queue holds the current head of every run
+            PriorityQueue<Map.Entry<Line, BufferedReader>> heads = new PriorityQueue<>(Map.Entry.comparingByKey(ORDER));
+            for (Path run : runs) {
+                BufferedReader reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+                readers.add(reader);
+                String line = reader.readLine();
+                if (line != null) {
+                    heads.add(Map.entry(Line.parse(line), reader));
+                }
+            }
+            while (!heads.isEmpty()) {
+                Map.Entry<Line, BufferedReader> head = heads.poll();
+                recordWriter.writeRecord(head.getKey().json());
+                String line = head.getValue().readLine();
+                if (line != null) {
+                    heads.add(Map.entry(Line.parse(line), head.getValue()));
+                }
+            }
+        } finally {
+            for (BufferedReader reader : readers) {
+                reader.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    // The harvest finished and its checkpoint is gone, the spilled records are no longer needed
+    public synchronized void delete() throws IOException {
+        spill.close();
+        Files.deleteIfExists(spillFile);
+    }
+
+    private List<Path> writeRuns() throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            List<Line> run = new ArrayList<>(RUN_SIZE);
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    run.add(Line.parse(line));
+                }
+                if (run.size() == RUN_SIZE || (line == null && !run.isEmpty())) {
+                    run.sort(ORDER);
+                    Path runFile = Path.of(jsonFile + ".run" + runs.size());
+                    try (BufferedWriter writer = Files.newBufferedWriter(runFile, StandardCharsets.UTF_8)) {
+                        for (Line l : run) {
+                            writer.write(l.toString());
+                            writer.newLine();
+                        }
+                    }
+                    runs.add(runFile);
+                    run.clear();
+                }
+                if (line == null) {
+                    return runs;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        spill.close();
+    }
+}
@@ -0,0 +1,76 @@
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.*;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// One page of results of the Zenodo records API
+// "hits" is null if the response has no results, "total" is -1 if it is unknown and "next" is null on the last page
+public record ZenodoPage(List<ZenodoRecord> hits, long total, String next) {
+
+    // Streams the body of successful responses into a page while it arrives, other responses are discarded and result in null
+    // The body is only read when the supplier is called, which must not happen on a thread of the HttpClient
+    public static HttpResponse.BodyHandler<Supplier<ZenodoPage>> handler(boolean raw) {
+        return responseInfo -> {
+            if (responseInfo.statusCode() != 200) {
+                return HttpResponse.BodySubscribers.replacing(() -> null);
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(), body -> () -> {
+                try (InputStream in = body) {
+                    return read(in, raw);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+    }
+
+    public static ZenodoPage read(InputStream in, boolean raw) throws IOException {
+        List<ZenodoRecord> hits = null;
+        long total = -1;
+        String next = null;
+
+        JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("hits") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String field = reader.nextName();
+                    if (field.equals("hits") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        hits = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            hits.add(ZenodoRecord.read(reader, raw));
+                        }
+                        reader.endArray();
+                    } else if (field.equals("total") && reader.peek() == JsonToken.NUMBER) {
+                        total = reader.nextLong();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else if (name.equals("links") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("next") && reader.peek() == JsonToken.STRING) {
+                        next = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ZenodoPage(hits, total, next);
+    }
+}
@@ -0,0 +1,140 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+// The fields of a Zenodo record which are used by Statistics
+// ORCID lists are null if the record has no "metadata", "raw" holds the complete record if it was requested
+public record ZenodoRecord(int id, String doi, String created, List<String> creatorOrcids, List<String> contributorOrcids, JsonObject raw) {
+
+    private static final Gson GSON = new Gson();
+
+    // Reads the next record, with "raw" the complete record is kept, otherwise all other fields are skipped
+    public static ZenodoRecord read(JsonReader reader, boolean raw) throws IOException {
+        if (raw) {
+            return of(JsonParser.parseReader(reader).getAsJsonObject());
+        }
+
+        int id = -1;
+        String doi = null;
+        String created = null;
+        List<String> creatorOrcids = null;
+        List<String> contributorOrcids = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id" -> id = reader.nextInt();
+                case "doi" -> doi = reader.nextString();
+                case "created" -> created = reader.nextString();
+                case "metadata" -> {
+                    creatorOrcids = new ArrayList<>();
+                    contributorOrcids = new ArrayList<>();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if (field.equals("creators") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            readOrcids(reader, creatorOrcids);
+                        } else if (field.equals("contributors") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            readOrcids(reader, contributorOrcids);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ZenodoRecord(id, doi, created, creatorOrcids, contributorOrcids, null);
+    }
+
+    private static void readOrcids(JsonReader reader, List<String> orcids) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("orcid") && reader.peek() == JsonToken.STRING) {
+                    orcids.add(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+    }
+
+    public static ZenodoRecord of(JsonObject record) {
+        String doi = record.has("doi") ? record.getAsJsonPrimitive("doi").getAsString() : null;
+        List<String> creatorOrcids = null;
+        List<String> contributorOrcids = null;
+        if (record.has("metadata")) {
+            JsonObject metadata = record.getAsJsonObject("metadata");
+            creatorOrcids = orcids(metadata.getAsJsonArray("creators"));
+            contributorOrcids = orcids(metadata.getAsJsonArray("contributors"));
+        }
+        return new ZenodoRecord(record.getAsJsonPrimitive("id").getAsInt(), doi, record.getAsJsonPrimitive("created").getAsString(), creatorOrcids, contributorOrcids, record);
+    }
+
+    private static List<String> orcids(JsonArray persons) {
+        List<String> orcids = new ArrayList<>();
+        if (persons != null) {
+            for (JsonElement person : persons) {
+                if (person.getAsJsonObject().has("orcid")) {
+                    orcids.add(person.getAsJsonObject().getAsJsonPrimitive("orcid").getAsString());
+                }
+            }
+        }
+        return orcids;
+    }
+
+    // Compact JSON of the complete record, or of the slim record with the same structure as a Zenodo record
+    public String toJson() throws IOException {
+        if (raw != null) {
+            return GSON.toJson(raw);
+        }
+
+        StringWriter json = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.setHtmlSafe(false);
+            writer.beginObject();
+            writer.name("created").value(created);
+            if (doi != null) {
+                writer.name("doi").value(doi);
+            }
+            writer.name("id").value(id);
+            if (creatorOrcids != null) {
+                writer.name("metadata").beginObject();
+                writeOrcids(writer, "creators", creatorOrcids);
+                writeOrcids(writer, "contributors", contributorOrcids);
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+        return json.toString();
+    }
+
+    private static void writeOrcids(JsonWriter writer, String name, List<String> orcids) throws IOException {
+        writer.name(name).beginArray();
+        for (String orcid : orcids) {
+            writer.beginObject().name("orcid").value(orcid).endObject();
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,239 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the Zenodo records API which replays the records of an earlier dump written by ZenodoRequest
+// Supports the "created:[start TO end]" queries of the harvester including paging, the 10000 results limit,
+// the "x-ratelimit-*" headers with 429 responses and an artificial latency for every request
+public class ZenodoReplayServer implements Closeable {
+
+    // Zenodo does not return more than 10000 results for a single query
+    private static final int MAX_RESULTS = 10_000;
+
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // Records sorted by "created", the creation time is stored in microseconds
+    private final long[] created;
+    private final String[] records;
+
+    private final int limit;
+    private final long windowMillis;
+    private final long latencyMillis;
+
+    private long windowStart = System.currentTimeMillis();
+    private int used = 0;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger throttledCount = new AtomicInteger();
+
+    // Allows "limit" requests per "windowSeconds", a port of 0 picks a free port
+    public ZenodoReplayServer(String jsonFile, int port, int limit, int windowSeconds, long latencyMillis) throws IOException {
+        this.limit = limit;
+        this.windowMillis = windowSeconds * 1000L;
+        this.latencyMillis = latencyMillis;
+
+        System.out.printf("*** [Loading records from file: '%s'] ***%n", jsonFile);
+
+        List<Map.Entry<Long, String>> entries = new ArrayList<>();
+        try (JsonRecordReader reader = new JsonRecordReader(jsonFile)) {
+            while (reader.hasNext()) {
+                JsonObject record = JsonParser.parseReader(reader.next()).getAsJsonObject();
+                Instant instant = Instant.parse(record.getAsJsonPrimitive("created").getAsString());
+                entries.add(Map.entry(instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000, gson.toJson(record)));
+            }
+        }
+        entries.sort(Map.Entry.comparingByKey());
+
+        created = new long[entries.size()];
+        records = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            created[i] = entries.get(i).getKey();
+            records[i] = entries.get(i).getValue();
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/records/", this::handle);
+        server.start();
+
+        System.out.printf("*** [Replaying %d records at %s] ***%n", records.length, baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/records/";
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    public int throttledCount() {
+        return throttledCount.get();
+    }
+
+    // Takes a request from the current rate limit window and sets the rate limit headers of the response
+    private synchronized boolean takeRequest(HttpExchange exchange) {
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= windowMillis) {
+            windowStart = now - (now - windowStart) % windowMillis;
+            used = 0;
+        }
+        boolean allowed = used < limit;
+        if (allowed) {
+            used++;
+        }
+        exchange.getResponseHeaders().add("x-ratelimit-limit", Integer.toString(limit));
+        exchange.getResponseHeaders().add("x-ratelimit-remaining", Integer.toString(limit - used));
+        exchange.getResponseHeaders().add("x-ratelimit-reset", Long.toString((windowStart + windowMillis + 999) / 1000));
+        return allowed;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestCount.incrementAndGet();
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            if (!takeRequest(exchange)) {
+                throttledCount.incrementAndGet();
+                send(exchange, 429, "{\"status\":429,\"message\":\"Too many requests\"}");
+                return;
+            }
+
+            Map<String, String> params = new HashMap<>();
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (rawQuery != null) {
+                for (String param : rawQuery.split("&")) {
+                    String[] pair = param.split("=", 2);
+                    params.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8), pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+                }
+            }
+
+            // Only the queries sent by ZenodoRequest are supported
+            String query = params.getOrDefault("q", "");
+            int open = query.indexOf('[');
+            int separator = query.indexOf(" TO ");
+            int close = query.indexOf(']');
+            if (!query.startsWith("created:") || open < 0 || separator < open || close < separator) {
+                send(exchange, 400, "{\"status\":400,\"message\":\"Unsupported query\"}");
+                return;
+            }
+            Instant start = Instant.parse(query.substring(open + 1, separator).trim());
+            Instant end = Instant.parse(query.substring(separator + 4, close).trim());
+            int size = Integer.parseInt(params.getOrDefault("size", "10"));
+            int page = Integer.parseInt(params.getOrDefault("page", "1"));
+
+            if ((long) page * size > MAX_RESULTS) {
+                send(exchange, 400, "{\"status\":400,\"message\":\"Maximum number of results have been reached.\"}");
+                return;
+            }
+
+            // Both ends of the range are inclusive
+            int from = lowerBound(start.getEpochSecond() * 1_000_000 + start.getNano() / 1_000);
+            int to = lowerBound(end.getEpochSecond() * 1_000_000 + end.getNano() / 1_000 + 1);
+            int total = to - from;
+            int first = from + (page - 1) * size;
+            int last = Math.min(first + size, to);
+
+            StringWriter body = new StringWriter();
+            try (JsonWriter writer = new JsonWriter(body)) {
+                writer.setHtmlSafe(false);
+                writer.beginObject();
+                writer.name("hits").beginObject();
+                writer.name("hits").beginArray();
+                for (int i = first; i < last; i++) {
+                    writer.jsonValue(records[i]);
+                }
+                writer.endArray();
+                writer.name("total").value(total);
+                writer.endObject();
+
+                writer.name("links").beginObject();
+                writer.name("self").value(link(params, page));
+                if ((long) page * size < Math.min(total, MAX_RESULTS)) {
+                    writer.name("next").value(link(params, page + 1));
+                }
+                writer.endObject();
+                writer.endObject();
+            }
+            send(exchange, 200, body.toString());
+        }
+    }
+
+    // Index of the first record created at or after "micros"
+    private int lowerBound(long micros) {
+        int low = 0;
+        int high = created.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (created[mid] < micros) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String link(Map<String, String> params, int page) {
+        StringJoiner query = new StringJoiner("&");
+        Map<String, String> linkParams = new TreeMap<>(params);
+        linkParams.put("page", Integer.toString(page));
+        for (Map.Entry<String, String> param : linkParams.entrySet()) {
+            query.add(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        }
+        return baseUrl() + "?" + query;
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        System.out.printf("*** [Replay server answered %d requests, %d of them with 429] ***%n", requestCount.get(), throttledCount.get());
+    }
+
+    // Usage: ZenodoReplayServer <zenodo_dump.json> [port] [requests per window] [window seconds] [latency millis]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ZenodoReplayServer <zenodo_dump.json> [port] [requests per window] [window seconds] [latency millis]");
+            System.exit(1);
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int limit = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int windowSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+        long latencyMillis = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        ZenodoReplayServer server = new ZenodoReplayServer(args[0], port, limit, windowSeconds, latencyMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+}
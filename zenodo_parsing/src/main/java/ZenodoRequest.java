@@ -1,236 +1,449 @@
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.stream.JsonWriter;
-
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 public class ZenodoRequest {
 
-    private String queryApi(HttpClient client, String apiCall) throws IOException, InterruptedException {
+    public static final String ZENODO_API = "https://zenodo.org/api/records/";
+
+    private static final LongAdder requestCounter = Metrics.counter("zenodo.http.requests");
+    private static final LongAdder throttledCounter = Metrics.counter("zenodo.http.throttled");
+    private static final LongAdder failedCounter = Metrics.counter("zenodo.http.failed");
+    private static final LongAdder harvestCounter = Metrics.counter("zenodo.records");
+    private static final LongAdder duplicateCounter = Metrics.counter("zenodo.duplicates");
+    private static final Metrics.Histogram rateLimitTimer = Metrics.timer("zenodo.ratelimit.wait");
+    private static final Metrics.Histogram latencyTimer = Metrics.timer("zenodo.http.latency");
+    private static final Metrics.Histogram bodyTimer = Metrics.timer("zenodo.http.body");
+    private static final Metrics.Histogram pageHistogram = Metrics.histogram("zenodo.page.records");
+
+    // Receives every record of the dump exactly once while it is harvested, possibly on several threads at the same time
+    // Records of an interrupted harvest are handed over again when it is resumed
+    interface Listener {
+        void accept(ZenodoRecord record);
+
+        // Called after the dump has been written completely
+        void finish() throws IOException;
+    }
+
+    static class Options {
+        private int concurrency = 4;
+        private boolean resume = true;
+        private HttpClient client = null;
+        private String baseUrl = ZENODO_API;
+        private boolean raw = true;
+        private Listener listener = null;
+
+        // Number of requests which are sent at the same time
+        Options concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        // Continue an interrupted harvest from its checkpoint, otherwise the harvest always starts from scratch
+        Options resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        // Transport for all requests, e.g. with a proxy or different timeouts
+        Options client(HttpClient client) {
+            this.client = client;
+            return this;
+        }
+
+        // Records API to harvest, e.g. the URL of a ZenodoReplayServer
+        Options baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+            return this;
+        }
+
+        // Dump the complete records, the default, otherwise only the fields of ZenodoRecord are kept
+        Options raw(boolean raw) {
+            this.raw = raw;
+            return this;
+        }
+
+        // Process records while they arrive instead of reading the finished dump, e.g. Statistics.Streaming
+        Options listener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final boolean raw;
+    private final Listener listener;
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    // Response bodies are read on these threads while they arrive
+    private final ExecutorService bodyExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "zenodo-body");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong pageCount = new AtomicLong();
+
+    // Set once the harvest has ended, requests which are still in flight must not add records any more
+    // Only changed while holding the lock of the dump writer, so no record is added after the writer was closed
+    private volatile boolean stopped = false;
+
+    // Completes with the parsed response, requests which exceed the rate limit are delayed without blocking a thread
+    private CompletableFuture<ZenodoPage> queryApiAsync(String apiCall) {
 
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(apiCall))
                 .GET()
                 .build();
 
-        while (true) {
-            // Send query and get result
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            Map<String, List<String>> headers = response.headers().map();
-            int code = response.statusCode();
+        long queued = System.nanoTime();
+        Metrics.HttpRequestEvent event = new Metrics.HttpRequestEvent();
+
+        // Wait until the shared rate limit allows another request
+        return rateLimiter.acquire()
+                .thenCompose(ignored -> {
+                    rateLimitTimer.recordSince(queued);
+                    requestCounter.increment();
+                    event.begin();
+                    // Measured until the headers arrive, the body is read afterwards
+                    long sent = System.nanoTime();
+                    return client.sendAsync(request, ZenodoPage.handler(raw))
+                            .whenComplete((response, e) -> {
+                                latencyTimer.recordSince(sent);
+                                if (e != null) {
+                                    failedCounter.increment();
+                                    rateLimiter.release();
+                                }
+                            });
+                })
+                .thenCompose(response -> {
+                    int code = response.statusCode();
+
+                    // Get information about rate limits, error pages e.g. of a proxy do not contain them
+                    int limit = (int) header(response.headers(), "x-ratelimit-limit");
+                    int remaining = (int) header(response.headers(), "x-ratelimit-remaining");
+                    long resetTime = header(response.headers(), "x-ratelimit-reset");
+                    boolean hasRateLimit = limit >= 0 && remaining >= 0 && resetTime >= 0;
+                    if (hasRateLimit) {
+                        rateLimiter.update(limit, remaining, resetTime, code == 429);
+                    } else {
+                        rateLimiter.release();
+                    }
 
-            // Get information about rate limits
-            int limit = Integer.parseInt(headers.get("x-ratelimit-limit").get(0));
-            int remaining = Integer.parseInt(headers.get("x-ratelimit-remaining").get(0));
-            long resetTime = Long.parseLong(headers.get("x-ratelimit-reset").get(0));
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.url = apiCall;
+                        event.status = code;
+                        event.remaining = remaining;
+                        event.commit();
+                    }
 
-            System.out.printf("[Rate limit %d/%d]%n", limit - remaining, limit);
+                    if (hasRateLimit) {
+                        System.out.printf("[Rate limit %d/%d]%n", limit - remaining, limit);
+                    }
 
-            Instant unixTime = Instant.ofEpochSecond(resetTime);
-            if (code == 429) {
-                // Rate limit reached
-                System.out.printf("*** [Sleeping until %s] ***%n", Date.from(unixTime));
+                    if (code == 429 && !hasRateLimit) {
+                        // Without a reset time the rate limiter cannot delay the retry
+                        throttledCounter.increment();
+                        System.out.println("*** [Rate limit reached, retrying in 60 s] ***");
+                        return CompletableFuture.runAsync(() -> {
+                        }, CompletableFuture.delayedExecutor(60, TimeUnit.SECONDS)).thenCompose(ignored -> queryApiAsync(apiCall));
+                    }
+                    if (code == 429) {
+                        throttledCounter.increment();
+                        // Rate limit reached, the rate limiter delays the retry until the reset time
+                        System.out.printf("*** [Rate limit reached, retrying after %s] ***%n", Date.from(Instant.ofEpochSecond(resetTime)));
+                        return queryApiAsync(apiCall);
+                    }
+                    if (code != 200) {
+                        failedCounter.increment();
+                        return CompletableFuture.failedFuture(new IOException("Unexpected response code " + code + " for " + apiCall));
+                    }
+                    return CompletableFuture.supplyAsync(() -> readBody(response), bodyExecutor);
+                });
+    }
 
-                final Object obj = new Object();
-                ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
+    // -1 if the header is missing or not a number
+    private static long header(HttpHeaders headers, String name) {
+        try {
+            return headers.firstValueAsLong(name).orElse(-1);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 
-                synchronized (obj) {
-                    service.schedule(() -> {
-                        synchronized (obj) {
-                            System.out.println("*** [Resuming excution] ***");
-                            obj.notifyAll();
-                        }
-                    }, resetTime - Instant.now().getEpochSecond(), TimeUnit.SECONDS);
-                    obj.wait();
-                }
-                // Try again
-                continue;
-            }
-            return response.body();
+    private static ZenodoPage readBody(HttpResponse<Supplier<ZenodoPage>> response) {
+        long start = System.nanoTime();
+        try {
+            return response.body().get();
+        } catch (UncheckedIOException e) {
+            throw new CompletionException(e.getCause());
+        } finally {
+            bodyTimer.recordSince(start);
         }
     }
 
+    private ZenodoPage queryApi(String apiCall) throws IOException, InterruptedException {
+        return await(queryApiAsync(apiCall));
+    }
+
     public ZenodoRequest(String jsonFile) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newBuilder().build();
+        this(jsonFile, new Options());
+    }
+
+    public ZenodoRequest(String jsonFile, Options options) throws IOException, InterruptedException {
+        client = options.client != null ? options.client : HttpClient.newBuilder().build();
+        baseUrl = options.baseUrl;
+        raw = options.raw;
+        listener = options.listener;
 
         // Zenodo's first publication is from 2014
-        Instant start = LocalDateTime.of(2014, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC);
-        Instant maxYear = LocalDateTime.of(2024, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC);
-        DateTimeFormatter dtf = DateTimeFormatter.ISO_INSTANT;
+        int firstYear = 2014;
+        // Like the original harvest, the last timeframe starting before 2024-01-01 is not cut off there but runs into 2024
+        // The published totals in Main include these records, the exact end depends on the size of that timeframe
+        int maxYear = 2024;
+
+        Path checkpointFile = Path.of(jsonFile + ".checkpoint");
+        if (!options.resume) {
+            Files.deleteIfExists(checkpointFile);
+        }
 
-        // Approximately 0.94 years, chosen because it is a power of 2 and can be bisected easily
-        int hours = 8192;
+        WindowPlanner planner = new WindowPlanner(this::probe);
 
-        // Results are unsorted, store them for later
-        Map<Integer, JsonObject> allValues = new HashMap<>();
+        // Only used to plan several years at the same time, pages are fetched asynchronously
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency);
 
-        long totalCount = 0;
+        // Completed timeframes are logged, records of these timeframes are already in the spill file
+        HarvestCheckpoint checkpoint = new HarvestCheckpoint(checkpointFile.toString());
+        List<WindowPlanner.Window> windows = checkpoint.plannedWindows();
 
-        while (true) {
-            Instant end = start.plus(hours, ChronoUnit.HOURS);
-            System.out.printf("Processing records [%s TO %s]%n", dtf.format(start), dtf.format(end));
+        // Results are unsorted, spill them to disk and sort them at the end
+        ZenodoDumpWriter dumpWriter = new ZenodoDumpWriter(jsonFile, windows != null);
 
-            // Limit time frame so we do not request much more than 10000 results
-            String query = String.format(Locale.ROOT, "created:[%s TO %s]", dtf.format(start), dtf.format(end));
+        try (checkpoint; dumpWriter) {
+            if (windows != null) {
+                System.out.printf(Locale.ROOT, "*** [Resuming harvest: %d/%d timeframes and %d records already done] ***%n", checkpoint.doneCount(), windows.size(), dumpWriter.size());
+                if (listener != null) {
+                    dumpWriter.replay(listener::accept);
+                }
+            } else {
+                // Plan all timeframes up front, every year is planned independently
+                // Consecutive years overlap by one hour like consecutive timeframes
+                List<Future<List<WindowPlanner.Window>>> plans = new ArrayList<>();
+                for (int year = firstYear; year < maxYear; year++) {
+                    Instant yearStart = LocalDateTime.of(year, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC);
+                    Instant start = year == firstYear ? yearStart : yearStart.minus(1, ChronoUnit.HOURS);
+                    Instant end = LocalDateTime.of(year + 1, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC);
+                    boolean lastYear = year == maxYear - 1;
+                    plans.add(executor.submit(() -> lastYear ? planner.planPast(start, end) : planner.plan(start, end)));
+                }
 
-            // Limit result size to 1 here since we are only interested in the total number of records
-            String[][] paramsArray = {
-                    {"q", query},
-                    {"size", "1"},
-                    {"all_versions", "false"},
-                    {"type", "dataset"}
-            };
+                windows = new ArrayList<>();
+                for (Future<List<WindowPlanner.Window>> plan : plans) {
+                    windows.addAll(await(plan));
+                }
+                checkpoint.recordPlan(windows);
+            }
+            long plannedRecords = windows.stream().mapToLong(WindowPlanner.Window::total).sum();
+            System.out.printf(Locale.ROOT, "Planned %d timeframes with %d records using %d probes%n", windows.size(), plannedRecords, planner.probeCount());
+
+            // Fetch the remaining timeframes, "concurrency" timeframes are in progress at any time
+            Queue<WindowPlanner.Window> pending = new ConcurrentLinkedQueue<>();
+            for (WindowPlanner.Window window : windows) {
+                if (!checkpoint.isDone(window)) {
+                    pending.add(window);
+                }
+            }
+            CompletableFuture<?>[] workers = new CompletableFuture<?>[options.concurrency];
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = fetchPending(pending, dumpWriter, checkpoint).whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        // Do not start any more timeframes after an error
+                        pending.clear();
+                        failed.completeExceptionally(e);
+                    }
+                });
+            }
+            try {
+                await(CompletableFuture.anyOf(CompletableFuture.allOf(workers), failed));
+            } finally {
+                // After a failure the other timeframes are abandoned, their responses are ignored
+                synchronized (dumpWriter) {
+                    stopped = true;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            bodyExecutor.shutdownNow();
+        }
 
-            StringJoiner params = new StringJoiner("&");
+        RateLimiter.Metrics metrics = rateLimiter.metrics();
+        System.out.printf(Locale.ROOT, "Rate limit: %d requests, %d delayed, total wait %.1f s, max wait %.1f s, %d responses with 429%n",
+                metrics.requests(), metrics.delayedRequests(), metrics.totalWaitMillis() / 1000.0, metrics.maxWaitMillis() / 1000.0, metrics.throttledResponses());
+        System.out.printf(Locale.ROOT, "Probe requests: %d, page requests: %d, probe/fetch ratio: %.3f, requests per 1000 records: %.2f%n",
+                planner.probeCount(), pageCount.get(), (double) planner.probeCount() / Math.max(pageCount.get(), 1),
+                1000.0 * (planner.probeCount() + pageCount.get()) / Math.max(dumpWriter.size(), 1));
+
+        Metrics.gauge("zenodo.windows", windows.size());
+        Metrics.gauge("zenodo.probes", planner.probeCount());
+        Metrics.gauge("zenodo.pages", pageCount.get());
+        Metrics.gauge("zenodo.ratelimit.delayed", metrics.delayedRequests());
+        Metrics.gauge("zenodo.dump.records", dumpWriter.size());
+
+        // Only delete the spilled records once the checkpoint is gone, otherwise a resume would find all timeframes done and no records
+        dumpWriter.finish();
+        checkpoint.delete();
+        dumpWriter.delete();
+        if (listener != null) {
+            listener.finish();
+        }
 
-            for (String[] param : paramsArray) {
-                params.add(URLEncoder.encode(param[0], StandardCharsets.UTF_8) + "=" + URLEncoder.encode(param[1], StandardCharsets.UTF_8));
+        System.out.println("*** [Done] ***");
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ex) {
+                throw ex;
             }
+            throw new IllegalStateException("Harvesting Zenodo records failed", e.getCause());
+        }
+    }
 
-            String apiCall = "https://zenodo.org/api/records/?" + params;
+    private String apiCall(Instant start, Instant end, int size) {
+        DateTimeFormatter dtf = DateTimeFormatter.ISO_INSTANT;
 
-            // Query Zenodo API, returns JSON object as result
-            String response = queryApi(client, apiCall);
+        // Limit time frame so we do not request much more than 10000 results
+        String query = String.format(Locale.ROOT, "created:[%s TO %s]", dtf.format(start), dtf.format(end));
 
-            long maxRecords;
-            long recordCounter = 0;
+        String[][] paramsArray = {
+                {"q", query},
+                {"size", Integer.toString(size)},
+                {"all_versions", "false"},
+                {"type", "dataset"}
+        };
 
-            JsonObject obj = JsonParser.parseString(response).getAsJsonObject();
+        StringJoiner params = new StringJoiner("&");
 
-            if (obj.has("hits")) {
-                maxRecords = obj.getAsJsonObject("hits").getAsJsonPrimitive("total").getAsLong();
-                // Zenodo only allows up to 10000 results in a single query and up to 1000 on a single page of results
-                if (maxRecords > 10_000) {
-                    System.out.printf("Found %d results, reducing interval%n", maxRecords);
-                    hours /= 2;
-                    continue;
-                }
+        for (String[] param : paramsArray) {
+            params.add(URLEncoder.encode(param[0], StandardCharsets.UTF_8) + "=" + URLEncoder.encode(param[1], StandardCharsets.UTF_8));
+        }
 
-                // Stop if we have reached our end date
-                if (start.isAfter(maxYear)) {
-                    break;
-                }
+        return baseUrl + "?" + params;
+    }
 
-                // If 0 records were returned, it just means our selected time interval was empty
-                // Start one hour before "end" the next time to retrieve records created on a full hour
-                if (maxRecords == 0) {
-                    start = end.minus(1, ChronoUnit.HOURS);
-                    hours = 8192;
-                    continue;
-                }
+    private long probe(Instant start, Instant end) throws IOException, InterruptedException {
+        DateTimeFormatter dtf = DateTimeFormatter.ISO_INSTANT;
+        System.out.printf("Probing records [%s TO %s]%n", dtf.format(start), dtf.format(end));
 
-            } else {
-                // We cannot continue if we do not know how many records exist
-                System.err.println("No 'total' value!");
-                return;
-            }
+        // Limit result size to 1 here since we are only interested in the total number of records
+        ZenodoPage page = queryApi(apiCall(start, end, 1));
 
-            hours = 8192;
+        if (page.total() < 0) {
+            // We cannot continue if we do not know how many records exist
+            throw new IOException("No 'total' value!");
+        }
+        return page.total();
+    }
 
-            // 1000 results per page is the maximum supported by the Zenodo API
-            paramsArray = new String[][]{
-                    {"q", query},
-                    {"size", "1000"},
-                    {"all_versions", "false"},
-                    {"type", "dataset"}
-            };
+    // Fetches timeframes from the queue one after another until it is empty
+    private CompletableFuture<Void> fetchPending(Queue<WindowPlanner.Window> pending, ZenodoDumpWriter dumpWriter, HarvestCheckpoint checkpoint) {
+        WindowPlanner.Window window = stopped ? null : pending.poll();
+        if (window == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return fetch(window, dumpWriter)
+                .thenRun(() -> {
+                    try {
+                        // Records must be on disk before the timeframe counts as done
+                        dumpWriter.flush();
+                        checkpoint.markDone(window);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .thenCompose(ignored -> fetchPending(pending, dumpWriter, checkpoint));
+    }
 
-            params = new StringJoiner("&");
+    private CompletableFuture<Void> fetch(WindowPlanner.Window window, ZenodoDumpWriter dumpWriter) {
+        DateTimeFormatter dtf = DateTimeFormatter.ISO_INSTANT;
+        System.out.printf("Processing records [%s TO %s]%n", dtf.format(window.start()), dtf.format(window.end()));
 
-            for (String[] param : paramsArray) {
-                params.add(URLEncoder.encode(param[0], StandardCharsets.UTF_8) + "=" + URLEncoder.encode(param[1], StandardCharsets.UTF_8));
-            }
+        // The planner already knows the number of records, up to 10000 of them can be retrieved
+        long maxRecords = Math.min(window.total(), 10_000);
+
+        // 1000 results per page is the maximum supported by the Zenodo API
+        return fetchPages(apiCall(window.start(), window.end(), 1000), 0, maxRecords, dumpWriter)
+                .thenAccept(recordCounter -> System.out.printf(Locale.ROOT, "Processed %d/%d (total %d) - Finished%n", recordCounter, maxRecords, totalCount.get()));
+    }
 
-            apiCall = "https://zenodo.org/api/records/?" + params;
-
-            while (recordCounter != maxRecords) {
-                response = queryApi(client, apiCall);
-
-                JsonObject root = JsonParser.parseString(response).getAsJsonObject();
-
-                // Parse JSON response
-                if (root.has("hits")) {
-                    JsonObject hits = root.getAsJsonObject("hits");
-                    if (hits.has("hits")) {
-                        // Get total number of results for the query
-                        JsonArray contents = hits.getAsJsonArray("hits");
-                        for (int i = 0; i < contents.size(); i++) {
-                            JsonObject element = contents.get(i).getAsJsonObject();
-                            // "id" is a unique value and exists in every record
-                            int id = element.getAsJsonPrimitive("id").getAsInt();
-                            if (!allValues.containsKey(id)) {
-                                allValues.put(id, element);
-                            } else {
-                                // Record might already exist since consecutive timeframes overlap by one hour
-                                System.err.println("Skipping duplicate element: " + id);
+    // Requests the page "apiCall" and all following pages, completes with the number of records of the timeframe
+    private CompletableFuture<Long> fetchPages(String apiCall, long recordCounter, long maxRecords, ZenodoDumpWriter dumpWriter) {
+        if (recordCounter >= maxRecords) {
+            return CompletableFuture.completedFuture(recordCounter);
+        }
+        return queryApiAsync(apiCall).thenCompose(page -> {
+            pageCount.incrementAndGet();
+
+            long counter = recordCounter;
+            if (page.hits() != null) {
+                pageHistogram.record(page.hits().size());
+                for (ZenodoRecord record : page.hits()) {
+                    try {
+                        boolean added;
+                        synchronized (dumpWriter) {
+                            if (stopped) {
+                                throw new CancellationException("Harvest has already ended");
                             }
-                            recordCounter++;
-                            totalCount++;
+                            added = dumpWriter.add(record);
                         }
-                    }
-
-                    System.out.printf(Locale.ROOT, "Processed %d/%d (total %d)%n", recordCounter, maxRecords, totalCount);
-
-                    // Extract "next" link which contains the URL to request the next page of results
-                    // If link does not exist, then either 10000 results have been returned or there are less than 10000 results in total
-                    if (root.has("links")) {
-                        JsonObject links = root.getAsJsonObject("links");
-                        if (links.has("next")) {
-                            apiCall = links.getAsJsonPrimitive("next").getAsString();
-                        } else {
-                            break;
+                        if (!added) {
+                            // Record might already exist since consecutive timeframes overlap by one hour
+                            System.err.println("Skipping duplicate element: " + record.id());
+                            duplicateCounter.increment();
+                        } else if (listener != null) {
+                            listener.accept(record);
                         }
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
                     }
+                    counter++;
+                    totalCount.incrementAndGet();
+                    harvestCounter.increment();
                 }
             }
-            System.out.printf(Locale.ROOT, "Processed %d/%d (total %d) - Finished%n", recordCounter, maxRecords, totalCount);
-
-            // Overlap consecutive timeframes by one hour
-            start = end.minus(1, ChronoUnit.HOURS);
-        }
-
-        System.out.printf("*** [Writing sorted output to file: '%s'] ***%n", jsonFile);
 
-        try (JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(jsonFile), StandardCharsets.UTF_8)))) {
-            Gson gson = new Gson();
-            jsonWriter.setIndent("  ");
-            jsonWriter.setHtmlSafe(false);
-            jsonWriter.beginArray();
+            System.out.printf(Locale.ROOT, "Processed %d/%d (total %d)%n", counter, maxRecords, totalCount.get());
 
-            allValues.values()
-                    .stream()
-                    .sorted((o1, o2) -> {
-                        String date1 = o1.getAsJsonPrimitive("created").getAsString();
-                        String date2 = o2.getAsJsonPrimitive("created").getAsString();
-                        Instant i1 = Instant.parse(date1);
-                        Instant i2 = Instant.parse(date2);
-                        return i1.compareTo(i2);
-                    })
-                    .forEach(record -> gson.toJson(record, jsonWriter));
-
-            jsonWriter.endArray();
-        }
-
-        System.out.println("*** [Done] ***");
+            // Follow the "next" link which contains the URL to request the next page of results
+            // If link does not exist, then either 10000 results have been returned or there are less than 10000 results in total
+            if (page.next() == null) {
+                return CompletableFuture.completedFuture(counter);
+            }
+            return fetchPages(page.next(), counter, maxRecords, dumpWriter);
+        });
     }
 }
@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrcidCodecTest {
+
+    private static final String ORCID = "0000-0002-1825-0097";
+
+    // Check symbol X, lowercase in some dblp and Zenodo records
+    private static final String ORCID_X = "0000-0002-1694-233X";
+
+    @Test
+    void parsesCanonicalForm() {
+        assertEquals(ORCID, OrcidCodec.decode(OrcidCodec.parse(ORCID)));
+        assertEquals(OrcidCodec.encode(ORCID), OrcidCodec.parse(ORCID));
+    }
+
+    @Test
+    void skipsEveryPrefix() {
+        String[] prefixes = {"https://orcid.org/", "http://orcid.org/", "https://www.orcid.org/", "http://www.orcid.org/", "orcid.org/", "www.orcid.org/", "HTTPS://ORCID.ORG/"};
+        for (String prefix : prefixes) {
+            assertEquals(ORCID, OrcidCodec.decode(OrcidCodec.parse(prefix + ORCID)), prefix);
+        }
+    }
+
+    @Test
+    void acceptsLowercaseX() {
+        assertEquals(ORCID_X, OrcidCodec.decode(OrcidCodec.parse("0000-0002-1694-233x")));
+        assertEquals(OrcidCodec.parse(ORCID_X), OrcidCodec.parse("0000-0002-1694-233x"));
+    }
+
+    @Test
+    void rejectsBadCheckDigit() {
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse("0000-0002-1825-0098"));
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse("0000-0002-1825-009X"));
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse("0000-0002-1694-2330"));
+    }
+
+    @Test
+    void acceptsFormWithoutHyphens() {
+        assertEquals(ORCID, OrcidCodec.decode(OrcidCodec.parse("0000000218250097")));
+        assertEquals(ORCID_X, OrcidCodec.decode(OrcidCodec.parse("https://orcid.org/000000021694233x")));
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse("000000021825009"));
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse("0000-00021825-0097"));
+    }
+
+    @Test
+    void skipsWhitespaceAndTrailingSlash() {
+        assertEquals(ORCID, OrcidCodec.decode(OrcidCodec.parse(" \t" + ORCID + "\n")));
+        assertEquals(ORCID, OrcidCodec.decode(OrcidCodec.parse(" https://orcid.org/" + ORCID + "/ ")));
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse(ORCID + "//"));
+    }
+
+    @Test
+    void parsesRangeOfText() {
+        String text = "<author orcid=\"https://orcid.org/" + ORCID + "/\">";
+        int start = text.indexOf('"') + 1;
+        int end = text.lastIndexOf('"');
+        assertEquals(ORCID, OrcidCodec.decode(OrcidCodec.parse(text, start, end)));
+        assertEquals(OrcidCodec.INVALID, OrcidCodec.parse(text, start, end - 2));
+    }
+}